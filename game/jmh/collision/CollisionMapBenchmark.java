@@ -0,0 +1,80 @@
+package collision;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import level.elements.ILevel;
+import level.elements.tile.Tile;
+import level.tools.LevelElement;
+import level.tools.LevelSize;
+import levelgraph.DoorDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import room.RoomGenerator;
+
+/** Building the collision map of a room, as done on every level load. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionMapBenchmark {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public LevelSize size;
+
+    private ILevel level;
+
+    @Setup
+    public void setup() {
+        level = mockLevel(size);
+    }
+
+    @Benchmark
+    public CollisionMap regenHitboxen() {
+        CollisionMap map = new CollisionMap();
+        map.regenHitboxen(level);
+        return map;
+    }
+
+    /**
+     * Create a level with the layout of a generated room, without loading any textures.
+     *
+     * @param size Size of the room
+     * @return Mocked level, only the layout and its tiles are usable
+     */
+    static ILevel mockLevel(LevelSize size) {
+        LevelElement[][] elements =
+                new RoomGenerator()
+                        .getLayout(
+                                size,
+                                new DoorDirection[] {
+                                    DoorDirection.UP,
+                                    DoorDirection.DOWN,
+                                    DoorDirection.LEFT,
+                                    DoorDirection.RIGHT
+                                });
+        Tile[][] layout = new Tile[elements.length][elements[0].length];
+        for (int y = 0; y < elements.length; y++) {
+            for (int x = 0; x < elements[y].length; x++) {
+                Tile tile = mock(Tile.class);
+                when(tile.getLevelElement()).thenReturn(elements[y][x]);
+                when(tile.isAccessible()).thenReturn(elements[y][x].getValue());
+                layout[y][x] = tile;
+            }
+        }
+        ILevel level = mock(ILevel.class);
+        when(level.getLayout()).thenReturn(layout);
+        return level;
+    }
+}
@@ -0,0 +1,53 @@
+package collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.Point;
+
+/** Narrowphase test of two hitboxes, for overlapping and separated pairs. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitboxBenchmark {
+    private static final int PAIRS = 1024;
+
+    private RectCollidable[] first;
+    private RectCollidable[] second;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        first = new RectCollidable[PAIRS];
+        second = new RectCollidable[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            // about half of the pairs overlap
+            first[i] = new RectCollidable(new Point(0, 0), 16, 16);
+            second[i] =
+                    new RectCollidable(
+                            new Point(random.nextFloat() * 3 - 1.5f, random.nextFloat() * 3 - 1.5f),
+                            16,
+                            16);
+        }
+    }
+
+    @Benchmark
+    public void collide(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(first[i].getHitbox().collide(second[i].getHitbox()));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.Point;
+
+/**
+ * One frame of entity collisions, like {@code Starter.checkForCollision}: move every entity a bit,
+ * detect the contacts and dispatch them.
+ *
+ * <p>The entities are spread over an area that grows with their number, so the density and the
+ * number of contacts per entity stay about the same for every population.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SweepAndPruneBenchmark {
+    // tiles per entity
+    private static final float AREA_PER_ENTITY = 8;
+    private static final float STEP = 0.1f;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entities;
+
+    private SweepAndPrune broadphase;
+    private ContactBuffer contacts;
+    private ParallelCollision parallelCollision;
+    private RectCollidable[] bodies;
+    private float side;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        side = (float) Math.sqrt(entities * AREA_PER_ENTITY);
+        broadphase = new SweepAndPrune();
+        contacts = new ContactBuffer();
+        parallelCollision = new ParallelCollision();
+        bodies = new RectCollidable[entities];
+        for (int i = 0; i < entities; i++) {
+            bodies[i] =
+                    new RectCollidable(
+                            new Point(random.nextFloat() * side, random.nextFloat() * side),
+                            16,
+                            16);
+            // a mix of heroes, monsters and skills, like in a fight
+            int layer =
+                    switch (i % 3) {
+                        case 0 -> CollisionLayer.ENEMY;
+                        case 1 -> CollisionLayer.SKILL;
+                        default -> CollisionLayer.HERO;
+                    };
+            bodies[i].getHitbox().setLayer(layer);
+            // the masks of Monster, BaseMeleeSkill and Hero
+            int mask =
+                    switch (layer) {
+                        case CollisionLayer.ENEMY -> CollisionLayer.NONE;
+                        case CollisionLayer.SKILL -> CollisionLayer.ENEMY;
+                        default -> CollisionLayer.ENEMY | CollisionLayer.OBJECT;
+                    };
+            bodies[i].getHitbox().setMask(mask);
+            broadphase.add(bodies[i]);
+        }
+    }
+
+    private void move() {
+        for (RectCollidable body : bodies) {
+            Point position = body.getPosition();
+            position.x = wrap(position.x + (random.nextFloat() - 0.5f) * STEP);
+            position.y = wrap(position.y + (random.nextFloat() - 0.5f) * STEP);
+        }
+    }
+
+    private float wrap(float value) {
+        if (value < 0) return value + side;
+        if (value >= side) return value - side;
+        return value;
+    }
+
+    @Benchmark
+    public int detect() {
+        move();
+        contacts.clear();
+        broadphase.detect(contacts);
+        contacts.sortAndDeduplicate();
+        return contacts.size();
+    }
+
+    @Benchmark
+    public int detectParallel() {
+        move();
+        contacts.clear();
+        broadphase.detect(contacts, parallelCollision);
+        contacts.sortAndDeduplicate();
+        return contacts.size();
+    }
+
+    @Benchmark
+    public int detectAndDispatch() {
+        move();
+        contacts.clear();
+        broadphase.detect(contacts, parallelCollision);
+        contacts.sortAndDeduplicate();
+        broadphase.dispatch(contacts);
+        return contacts.size();
+    }
+}
@@ -4,30 +4,63 @@ import basiselements.AnimatableElement;
 import collision.CharacterDirection;
 import collision.Collidable;
 import collision.Hitbox;
+import collision.SolidityGrid;
+import collision.SweepResult;
 import graphic.Animation;
 import level.elements.ILevel;
+import room.Room;
+import simulation.Tickable;
 import tools.Point;
 
-/** Characters in the Dugenon. Characters can move, have animations and collision. */
-public abstract class DungeonCharacter extends AnimatableElement implements Collidable {
+/**
+ * Characters in the Dugenon. Characters can move, have animations and collision.
+ *
+ * <p>The position, velocity and flags of a character are kept in the {@link EntityStore}, the
+ * character only holds its id.
+ */
+public abstract class DungeonCharacter extends AnimatableElement
+        implements Collidable, Tickable {
     protected int hitpoints;
 
-    protected Point currentPosition;
     protected Animation currentAnimation;
     protected ILevel currentLevel;
     protected float movementSpeed;
     protected Hitbox hitbox;
-    protected boolean alive = true;
+
+    private final EntityStore store;
+    private int id;
+    // the last position, once the id was given back to the store
+    private float releasedX;
+    private float releasedY;
+    private final SweepResult sweepResult = new SweepResult();
+    private SolidityGrid terrain;
+    private Steering steering;
+    private boolean clockDriven;
+    // set by decide, used by integrate
+    private CharacterDirection plannedDirection = CharacterDirection.NONE;
+    private float plannedDistance;
 
     /**
      * @param movementSpeed Speed per Frame
      * @param hitbox Hitbox
      */
     public DungeonCharacter(int hitpoints, float movementSpeed, Hitbox hitbox) {
+        this(hitpoints, movementSpeed, hitbox, EntityStore.getInstance());
+    }
+
+    /**
+     * @param movementSpeed Speed per Frame
+     * @param hitbox Hitbox
+     * @param store Store that keeps the position and flags of this character
+     */
+    protected DungeonCharacter(
+            int hitpoints, float movementSpeed, Hitbox hitbox, EntityStore store) {
+        this.store = store;
         this.hitpoints = hitpoints;
         this.movementSpeed = movementSpeed;
         this.hitbox = hitbox;
         hitbox.setCollidable(this);
+        id = store.add();
     }
 
     /**
@@ -48,77 +81,122 @@ public abstract class DungeonCharacter extends AnimatableElement implements Coll
      * @return if the character was moved
      */
     protected boolean move() {
-        Point tmp;
-        CharacterDirection direction = getDirection();
-        switch (direction) {
-            case UP:
-                tmp = moveup();
-                break;
-            case DOWN:
-                tmp = movedown();
-                break;
-            case LEFT:
-                tmp = moveleft();
-                break;
-            case RIGHT:
-                tmp = moveright();
-                break;
-            default:
-                tmp = currentPosition;
-                break;
-        }
-        // check if character can move in this direction
-        if (tmp != currentPosition && isHitboxOnFloor(tmp)) {
-            currentPosition = tmp;
-            setAnimation(direction);
-            return true;
-        }
-        setAnimation(CharacterDirection.NONE);
-        return false;
+        return move(movementSpeed);
     }
 
     /**
-     * Check if the full Hitbox is on a Floor-Tile
+     * Move the character
      *
-     * @param newPosition Position for the bottom left corner of the hibbox
-     * @return if the full Hitbox is on a Floor-Tile
-     */
-    protected boolean isHitboxOnFloor(Point newPosition) {
-        Point[] corners = hitbox.getCorners();
-        for (int i = 0; i < 4; i++) {
-            Point corner = new Point(newPosition.x + corners[i].x, newPosition.y + corners[i].y);
-            if (currentLevel.getTileAt(corner.toCoordinate()) == null
-                    || !currentLevel.getTileAt(corner.toCoordinate()).isAccessible()) return false;
-        }
-        return true;
+     * @param distance Distance to move
+     * @return if the character was moved
+     */
+    protected boolean move(float distance) {
+        return move(getDirection(), distance);
+    }
+
+    /**
+     * Move the character
+     *
+     * @param direction Direction to move in
+     * @param distance Distance to move
+     * @return if the character was moved
+     */
+    protected boolean move(CharacterDirection direction, float distance) {
+        store.setVelocity(id, 0, 0);
+        boolean moved;
+        if (steering != null) moved = steering.steer(this, direction, distance);
+        else moved = direction != CharacterDirection.NONE && moveAndSlide(direction, distance);
+        setAnimation(moved ? direction : CharacterDirection.NONE);
+        return moved;
+    }
+
+    /**
+     * @param steering Steers this character around others and walls, null to move straight
+     */
+    public void setSteering(Steering steering) {
+        this.steering = steering;
     }
 
     /**
-     * @return New Position if the Character would move up
+     * @return Distance to the point the character wants to reach, steering slows down near it
      */
-    protected Point moveup() {
-        return new Point(currentPosition.x, currentPosition.y + movementSpeed);
+    protected float getDistanceToGoal() {
+        return Float.POSITIVE_INFINITY;
     }
 
     /**
-     * @return New Position if the Character would move down
+     * Move the character through the terrain. If a wall is in the way, the character stops
+     * directly at the wall.
+     *
+     * @param direction Direction to move in
+     * @param distance Distance to move
+     * @return if the position of the character changed
+     */
+    protected boolean moveAndSlide(CharacterDirection direction, float distance) {
+        return applySweep(sweep(direction, distance));
+    }
+
+    /**
+     * Move the character through the terrain by any displacement.
+     *
+     * @param dx Movement on the x axis
+     * @param dy Movement on the y axis
+     * @return if the position of the character changed
+     */
+    protected boolean moveAndSlide(float dx, float dy) {
+        return applySweep(sweep(dx, dy));
+    }
+
+    private boolean applySweep(SweepResult result) {
+        float x = store.getX(id);
+        float y = store.getY(id);
+        if (result.getX() == x && result.getY() == y) return false;
+        store.setVelocity(id, result.getX() - x, result.getY() - y);
+        store.setPosition(id, result.getX(), result.getY());
+        store.setFlag(id, EntityStore.MOVED, true);
+        return true;
+    }
+
+    /**
+     * Resolve a movement against the terrain without moving the character.
+     *
+     * @param direction Direction to move in
+     * @param distance Distance to move
+     * @return The reached position and the contact normal, the object is reused by the next sweep
      */
-    protected Point movedown() {
-        return new Point(currentPosition.x, currentPosition.y - movementSpeed);
+    protected SweepResult sweep(CharacterDirection direction, float distance) {
+        float dx = 0;
+        float dy = 0;
+        switch (direction) {
+            case UP -> dy = distance;
+            case DOWN -> dy = -distance;
+            case LEFT -> dx = -distance;
+            case RIGHT -> dx = distance;
+        }
+        return sweep(dx, dy);
     }
 
     /**
-     * @return New Position if the Character would move left
+     * Resolve a movement against the terrain without moving the character.
+     *
+     * @param dx Movement on the x axis
+     * @param dy Movement on the y axis
+     * @return The reached position and the contact normal, the object is reused by the next sweep
      */
-    protected Point moveleft() {
-        return new Point(currentPosition.x - movementSpeed, currentPosition.y);
+    protected SweepResult sweep(float dx, float dy) {
+        getTerrain()
+                .moveAndSlide(hitbox, store.getX(id), store.getY(id), dx, dy, sweepResult);
+        return sweepResult;
     }
 
     /**
-     * @return New Position if the Character would move right
+     * @return The solid tiles of the current level
      */
-    protected Point moveright() {
-        return new Point(currentPosition.x + movementSpeed, currentPosition.y);
+    protected SolidityGrid getTerrain() {
+        if (currentLevel instanceof Room room) return room.getCollisionMap().getSolidityGrid();
+        // levels that are no rooms have no cached collision map
+        if (terrain == null) terrain = SolidityGrid.fromLayout(currentLevel.getLayout());
+        return terrain;
     }
 
     /**
@@ -128,30 +206,128 @@ public abstract class DungeonCharacter extends AnimatableElement implements Coll
      */
     public void setLevel(ILevel level) {
         this.currentLevel = level;
+        terrain = null;
     }
 
+    /**
+     * @return The current Level this Character is in
+     */
+    public ILevel getLevel() {
+        return currentLevel;
+    }
+
+    /**
+     * Push the character away, the whole way is checked against the terrain.
+     *
+     * @param from Direction to push the character to
+     * @param v Multiplier for the movement speed
+     */
     protected void knockback(CharacterDirection from, float v) {
-        float movementSpeed = this.movementSpeed;
-        this.movementSpeed *= v; // knockback
-        currentPosition =
-                switch (from) {
-                    case UP -> moveup();
-                    case DOWN -> movedown();
-                    case LEFT -> moveleft();
-                    case RIGHT -> moveright();
-                    case NONE -> currentPosition;
-                };
-        this.movementSpeed = movementSpeed;
+        if (from != CharacterDirection.NONE) moveAndSlide(from, movementSpeed * v);
+    }
+
+    /**
+     * @param clockDriven true if {@link #tick()} is called by a {@link simulation.SimulationClock},
+     *     false to advance one tick in every frame
+     */
+    public void setClockDriven(boolean clockDriven) {
+        this.clockDriven = clockDriven;
     }
 
     @Override
     public void update() {
-        move();
+        if (!clockDriven) tick();
+    }
+
+    @Override
+    public void tick() {
+        decide();
+        integrate();
+    }
+
+    /**
+     * First phase of a tick: choose where to go, without moving.
+     *
+     * <p>Runs in parallel for many characters, so it may only change the state of this character
+     * and must not move it.
+     */
+    public void decide() {
+        plan(getDirection(), movementSpeed);
+    }
+
+    /**
+     * @param direction Direction to move in the integration phase
+     * @param distance Distance to move in the integration phase, 0 to stay
+     */
+    protected void plan(CharacterDirection direction, float distance) {
+        plannedDirection = direction;
+        plannedDistance = distance;
+    }
+
+    /**
+     * Second phase of a tick: move as decided.
+     *
+     * <p>Runs in parallel for many characters. While it runs, the {@link EntityStore} still shows
+     * the positions from before this phase to every reader.
+     */
+    public void integrate() {
+        if (plannedDistance > 0) move(plannedDirection, plannedDistance);
+        plannedDistance = 0;
     }
 
+    /**
+     * @return x of the simulated position
+     */
+    @Override
+    public float getX() {
+        return id < 0 ? releasedX : store.getX(id);
+    }
+
+    /**
+     * @return y of the simulated position
+     */
+    @Override
+    public float getY() {
+        return id < 0 ? releasedY : store.getY(id);
+    }
+
+    /**
+     * Put the character to a position, without moving through the terrain.
+     *
+     * @param x new x of the position
+     * @param y new y of the position
+     */
+    public void setPosition(float x, float y) {
+        store.place(id, x, y);
+    }
+
+    /**
+     * Put the character to a position, without moving through the terrain.
+     *
+     * @param position new position, only the coordinates are copied
+     */
+    public void setPosition(Point position) {
+        store.place(id, position.x, position.y);
+    }
+
+    /**
+     * @return Id of this character in the {@link EntityStore}
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Between the ticks of a {@link simulation.SimulationClock} this is the interpolated position
+     * to draw the character at. Every call creates a new point, use {@link #getX()} and {@link
+     * #getY()} for the simulated position without creating objects.
+     *
+     * @return A copy of the current position
+     */
     @Override
     public Point getPosition() {
-        return currentPosition;
+        if (id < 0) return new Point(releasedX, releasedY);
+        return new Point(store.getRenderX(id), store.getRenderY(id));
     }
 
     @Override
@@ -166,10 +342,23 @@ public abstract class DungeonCharacter extends AnimatableElement implements Coll
 
     @Override
     public boolean removable() {
-        return !alive;
+        return id < 0 || !store.hasFlag(id, EntityStore.ALIVE);
     }
 
     protected void die() {
-        alive = false;
+        // a released character is not in the store anymore and counts as removable
+        if (id >= 0) store.setFlag(id, EntityStore.ALIVE, false);
+    }
+
+    /**
+     * Give the id of this character back to the store, once the character left the game. The last
+     * position stays readable with {@link #getPosition()}.
+     */
+    public void release() {
+        if (id < 0) return;
+        releasedX = store.getRenderX(id);
+        releasedY = store.getRenderY(id);
+        store.release(id);
+        id = -1;
     }
 }
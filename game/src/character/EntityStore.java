@@ -0,0 +1,290 @@
+package character;
+
+import java.util.Arrays;
+
+/**
+ * The state of all characters in parallel primitive arrays, indexed by the id of the character.
+ *
+ * <p>Positions, velocities and the flags of one character are not spread over several objects, but
+ * stored at the same index in a few arrays. Systems that update
+ * many characters walk linearly through these arrays, which keeps the caches warm and creates no
+ * garbage. A {@link DungeonCharacter} is only a handle that knows its id.
+ *
+ * <p>Ids of released characters are reused. Characters are created and released on the game
+ * thread. Between {@link #beginBuffering()} and {@link #commit()} the positions are double
+ * buffered: new positions go to a second buffer and all readers see the positions from before, so
+ * characters can be moved in parallel as long as every thread only moves its own characters.
+ */
+public class EntityStore {
+    /** Flag of characters that are alive */
+    public static final int ALIVE = 1;
+
+    /** Flag of characters that moved in the current tick */
+    public static final int MOVED = 1 << 1;
+
+    private static final EntityStore INSTANCE = new EntityStore();
+
+    private float[] x;
+    private float[] y;
+    // written instead of x and y while buffering
+    private float[] nextX;
+    private float[] nextY;
+    private boolean buffering;
+    // positions before the current tick, for the interpolation
+    private float[] previousX;
+    private float[] previousY;
+    private float[] velocityX;
+    private float[] velocityY;
+    private int[] flags;
+
+    private float interpolation = 1;
+
+    private int[] freeIds;
+    private int freeCount;
+    private int limit;
+    private int count;
+
+    public EntityStore() {
+        this(64);
+    }
+
+    /**
+     * @param capacity Number of characters the store can hold before it has to grow
+     */
+    public EntityStore(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * @return The store of all characters in the game
+     */
+    public static EntityStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add a character to the store
+     *
+     * @return Id of the character, alive at the position (0|0) and without velocity
+     */
+    public int add() {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (limit == flags.length) allocate(limit * 2);
+            id = limit++;
+        }
+        x[id] = 0;
+        y[id] = 0;
+        previousX[id] = 0;
+        previousY[id] = 0;
+        velocityX[id] = 0;
+        velocityY[id] = 0;
+        flags[id] = ALIVE;
+        count++;
+        return id;
+    }
+
+    /**
+     * Remove a character from the store, its id is reused by the next added character.
+     *
+     * @param id Id of the character
+     */
+    public void release(int id) {
+        flags[id] = 0;
+        freeIds[freeCount++] = id;
+        count--;
+    }
+
+    /**
+     * @return Number of characters in the store
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Sweeps over all characters go from id 0 to this limit and skip the ids without {@link
+     * #ALIVE} flag.
+     *
+     * @return One more than the biggest id that was ever handed out
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param id Id of the character
+     * @return x of the position
+     */
+    public float getX(int id) {
+        return x[id];
+    }
+
+    /**
+     * @param id Id of the character
+     * @return y of the position
+     */
+    public float getY(int id) {
+        return y[id];
+    }
+
+    /**
+     * While buffering, the new position is only visible after {@link #commit()}.
+     *
+     * @param id Id of the character
+     * @param x new x of the position
+     * @param y new y of the position
+     */
+    public void setPosition(int id, float x, float y) {
+        if (buffering) {
+            nextX[id] = x;
+            nextY[id] = y;
+        } else {
+            this.x[id] = x;
+            this.y[id] = y;
+        }
+    }
+
+    /**
+     * Start writing the positions to the second buffer. No character may be added or released
+     * until {@link #commit()}.
+     */
+    public void beginBuffering() {
+        System.arraycopy(x, 0, nextX, 0, limit);
+        System.arraycopy(y, 0, nextY, 0, limit);
+        buffering = true;
+    }
+
+    /** Swap the buffers, so the positions written since {@link #beginBuffering()} are visible. */
+    public void commit() {
+        if (!buffering) return;
+        float[] swap = x;
+        x = nextX;
+        nextX = swap;
+        swap = y;
+        y = nextY;
+        nextY = swap;
+        buffering = false;
+    }
+
+    /**
+     * Put a character to a position without a transition, also for the interpolation.
+     *
+     * @param id Id of the character
+     * @param x new x of the position
+     * @param y new y of the position
+     */
+    public void place(int id, float x, float y) {
+        setPosition(id, x, y);
+        previousX[id] = x;
+        previousY[id] = y;
+    }
+
+    /** Remember the positions of all characters, called before every tick. */
+    public void savePositions() {
+        System.arraycopy(x, 0, previousX, 0, limit);
+        System.arraycopy(y, 0, previousY, 0, limit);
+    }
+
+    /**
+     * Set how far the rendered frame is between the last two ticks. During the ticks it has to be
+     * 1, so the render position is the simulated position.
+     *
+     * @param alpha 0 for the positions before the last tick, 1 for the current positions
+     */
+    public void setInterpolation(float alpha) {
+        interpolation = alpha;
+    }
+
+    /**
+     * @param id Id of the character
+     * @return x of the position to draw the character at
+     */
+    public float getRenderX(int id) {
+        if (interpolation >= 1) return x[id];
+        return previousX[id] + (x[id] - previousX[id]) * interpolation;
+    }
+
+    /**
+     * @param id Id of the character
+     * @return y of the position to draw the character at
+     */
+    public float getRenderY(int id) {
+        if (interpolation >= 1) return y[id];
+        return previousY[id] + (y[id] - previousY[id]) * interpolation;
+    }
+
+    /**
+     * @param id Id of the character
+     * @return Movement on the x axis in the last update
+     */
+    public float getVelocityX(int id) {
+        return velocityX[id];
+    }
+
+    /**
+     * @param id Id of the character
+     * @return Movement on the y axis in the last update
+     */
+    public float getVelocityY(int id) {
+        return velocityY[id];
+    }
+
+    /**
+     * @param id Id of the character
+     * @param velocityX Movement on the x axis
+     * @param velocityY Movement on the y axis
+     */
+    public void setVelocity(int id, float velocityX, float velocityY) {
+        this.velocityX[id] = velocityX;
+        this.velocityY[id] = velocityY;
+    }
+
+    /**
+     * @param id Id of the character
+     * @param flag One of the flags, like {@link #ALIVE}
+     * @return if the flag is set
+     */
+    public boolean hasFlag(int id, int flag) {
+        return (flags[id] & flag) != 0;
+    }
+
+    /**
+     * @param id Id of the character
+     * @param flag One of the flags, like {@link #ALIVE}
+     * @param set true to set, false to clear the flag
+     */
+    public void setFlag(int id, int flag, boolean set) {
+        if (set) flags[id] |= flag;
+        else flags[id] &= ~flag;
+    }
+
+    /**
+     * Clear a flag of all characters in one sweep, like {@link #MOVED} at the start of a frame.
+     *
+     * @param flag One of the flags
+     */
+    public void clearFlag(int flag) {
+        int keep = ~flag;
+        for (int id = 0; id < limit; id++) flags[id] &= keep;
+    }
+
+    private void allocate(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        nextX = grow(nextX, capacity);
+        nextY = grow(nextY, capacity);
+        previousX = grow(previousX, capacity);
+        previousY = grow(previousY, capacity);
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        flags = flags == null ? new int[capacity] : Arrays.copyOf(flags, capacity);
+        freeIds = freeIds == null ? new int[capacity] : Arrays.copyOf(freeIds, capacity);
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
@@ -0,0 +1,99 @@
+package character;
+
+import collision.CharacterDirection;
+import collision.EntityGrid;
+import collision.SweepResult;
+
+/**
+ * Local steering for crowds of characters.
+ *
+ * <p>The direction a character wants to go is turned into a velocity and combined with
+ * <ul>
+ *   <li>separation: push away from neighbours closer than the separation radius,
+ *   <li>arrival: slow down near the goal,
+ *   <li>obstacle avoidance: turn away from walls that are just ahead.
+ * </ul>
+ *
+ * <p>The neighbours are found with a radius query in an {@link EntityGrid}, so every character
+ * only looks at a few others. One instance is shared by all characters, also by the threads of the
+ * integration phase. Every thread reuses its own buffer, nothing is allocated per frame.
+ */
+public class Steering {
+    private static final int MAX_NEIGHBOURS = 16;
+    private static final float SEPARATION_RADIUS = 0.6f;
+    private static final float SEPARATION_WEIGHT = 1.5f;
+    private static final float SLOWING_RADIUS = 1;
+    private static final float LOOK_AHEAD = 4;
+    private static final float AVOIDANCE_WEIGHT = 0.5f;
+
+    private final EntityGrid neighbours;
+    private final ThreadLocal<int[]> buffers =
+            ThreadLocal.withInitial(() -> new int[MAX_NEIGHBOURS]);
+
+    /**
+     * @param neighbours Grid with all characters that should keep their distance, rebuilt every
+     *     frame
+     */
+    public Steering(EntityGrid neighbours) {
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Move a character by its steered velocity.
+     *
+     * @param character Character to move
+     * @param direction Direction the character wants to go, NONE to only keep the distance
+     * @param distance Maximal distance to move
+     * @return if the character was moved
+     */
+    public boolean steer(DungeonCharacter character, CharacterDirection direction, float distance) {
+        float centerX =
+                character.getX() + (character.hitbox.getMinX() + character.hitbox.getMaxX()) / 2;
+        float centerY =
+                character.getY() + (character.hitbox.getMinY() + character.hitbox.getMaxY()) / 2;
+
+        // seek, slowed down near the goal
+        float speed = distance * Math.min(1, character.getDistanceToGoal() / SLOWING_RADIUS);
+        float velocityX = 0;
+        float velocityY = 0;
+        switch (direction) {
+            case UP -> velocityY = speed;
+            case DOWN -> velocityY = -speed;
+            case LEFT -> velocityX = -speed;
+            case RIGHT -> velocityX = speed;
+        }
+
+        // separation, stronger the closer the neighbour is
+        int[] found = buffers.get();
+        int count = neighbours.queryRadius(centerX, centerY, SEPARATION_RADIUS, found);
+        for (int i = 0; i < count; i++) {
+            if (neighbours.get(found[i]) == character) continue;
+            float dx = centerX - neighbours.getCenterX(found[i]);
+            float dy = centerY - neighbours.getCenterY(found[i]);
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            if (length == 0) continue;
+            float push = distance * SEPARATION_WEIGHT * (1 - length / SEPARATION_RADIUS) / length;
+            velocityX += dx * push;
+            velocityY += dy * push;
+        }
+
+        // obstacle avoidance, a wall a few steps ahead pushes back along its normal
+        if (velocityX != 0 || velocityY != 0) {
+            SweepResult ahead =
+                    character.sweep(velocityX * LOOK_AHEAD, velocityY * LOOK_AHEAD);
+            if (ahead.isHit()) {
+                velocityX += ahead.getNormalX() * distance * AVOIDANCE_WEIGHT;
+                velocityY += ahead.getNormalY() * distance * AVOIDANCE_WEIGHT;
+            }
+        }
+
+        // never faster than the character can move
+        float length = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        if (length == 0) return false;
+        if (length > distance) {
+            velocityX *= distance / length;
+            velocityY *= distance / length;
+        }
+        return character.moveAndSlide(velocityX, velocityY);
+    }
+}
@@ -0,0 +1,101 @@
+package character;
+
+import collision.EntityGrid;
+import collision.ParallelCollision;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Updates many characters in phases, spread over the threads of a {@link ParallelCollision}.
+ *
+ * <ol>
+ *   <li>decide: every character chooses its direction ({@link DungeonCharacter#decide()}). Only
+ *       reads the world and changes the state of the character itself.
+ *   <li>integrate: every character moves ({@link DungeonCharacter#integrate()}). The new positions
+ *       are written to the second buffer of the {@link EntityStore}, so all characters see the
+ *       positions from before the phase, no matter in which order they move.
+ *   <li>commit: the buffers are swapped on the calling thread. Collision detection and everything
+ *       else that changes shared state runs after {@link #update(List)} returns.
+ * </ol>
+ *
+ * <p>The phases are split by the cells of an {@link EntityGrid}, so every thread works on
+ * characters that stand near each other and read the same part of the level and of the other
+ * characters. A cell is never split between two threads.
+ *
+ * <p>Shared caches the characters read, like the collision map and the components of a room, have
+ * to be created before the update. Small populations are updated on the calling thread.
+ */
+public class TickScheduler {
+    private final ParallelCollision parallel;
+    private final EntityStore store;
+    // start of every chunk in the cell order of the grid, reused between the ticks
+    private int[] chunkStart = new int[0];
+
+    /**
+     * @param parallel Decides if and on which pool the phases are split up
+     */
+    public TickScheduler(ParallelCollision parallel) {
+        this(parallel, EntityStore.getInstance());
+    }
+
+    /**
+     * @param parallel Decides if and on which pool the phases are split up
+     * @param store Store of the positions of the characters
+     */
+    public TickScheduler(ParallelCollision parallel, EntityStore store) {
+        this.parallel = parallel;
+        this.store = store;
+    }
+
+    /**
+     * Run the decide, integrate and commit phases for the given characters.
+     *
+     * @param characters Characters to update, the list must not change during the update
+     * @param grid Grid built from the characters, in the same order and before the update
+     */
+    public void update(List<? extends DungeonCharacter> characters, EntityGrid grid) {
+        int chunks = parallel.isParallel(characters.size()) ? splitIntoCells(grid) : 0;
+        forEach(characters, grid, chunks, DungeonCharacter::decide);
+        store.beginBuffering();
+        try {
+            forEach(characters, grid, chunks, DungeonCharacter::integrate);
+        } finally {
+            store.commit();
+        }
+    }
+
+    private void forEach(
+            List<? extends DungeonCharacter> characters,
+            EntityGrid grid,
+            int chunks,
+            Consumer<DungeonCharacter> phase) {
+        if (chunks == 0) {
+            for (int i = 0; i < characters.size(); i++) phase.accept(characters.get(i));
+            return;
+        }
+        parallel.forEachChunk(
+                chunks,
+                chunk -> {
+                    for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++)
+                        phase.accept(characters.get(grid.getSorted(i)));
+                });
+    }
+
+    // split the cell order of the grid into chunks that only end between two cells
+    private int splitIntoCells(EntityGrid grid) {
+        int maxChunks = parallel.getChunkCount();
+        if (chunkStart.length < maxChunks + 1) chunkStart = new int[maxChunks + 1];
+        int count = grid.size();
+        int chunkSize = Math.max(1, (count + maxChunks - 1) / maxChunks);
+        int chunks = 0;
+        int start = 0;
+        while (start < count && chunks < maxChunks) {
+            int end = grid.nextCellStart(Math.min(count, start + chunkSize));
+            if (chunks == maxChunks - 1) end = count;
+            chunkStart[chunks++] = start;
+            start = end;
+        }
+        chunkStart[chunks] = count;
+        return chunks;
+    }
+}
@@ -0,0 +1,70 @@
+package character.monster;
+
+import level.elements.ILevel;
+
+/**
+ * Level of detail for the AI of monsters.
+ *
+ * <p>Monsters near the focus (the hero, which the camera follows) think and move every tick. The
+ * further away, the fewer ticks they get, but they move the distance of all skipped ticks at once.
+ * Monsters in another level than the current one are suspended.
+ *
+ * <p>Every monster has its own phase, so the monsters of one bucket do not all tick in the same
+ * frame.
+ */
+public class AiScheduler {
+    /** Monster is suspended */
+    public static final int SUSPENDED = 0;
+
+    private static final float NEAR_DISTANCE = 8;
+    private static final float MIDDLE_DISTANCE = 16;
+    private static final int MIDDLE_INTERVAL = 4;
+    private static final int FAR_INTERVAL = 8;
+
+    private ILevel currentLevel;
+    private float focusX;
+    private float focusY;
+    private int frame;
+
+    /**
+     * Start the next frame.
+     *
+     * @param currentLevel Level the hero is in
+     * @param focusX x of the position of the hero
+     * @param focusY y of the position of the hero
+     */
+    public void beginFrame(ILevel currentLevel, float focusX, float focusY) {
+        this.currentLevel = currentLevel;
+        this.focusX = focusX;
+        this.focusY = focusY;
+        frame++;
+    }
+
+    /**
+     * @param level Level of the monster
+     * @param x x of the position of the monster
+     * @param y y of the position of the monster
+     * @return Number of frames between two ticks of the monster, {@link #SUSPENDED} if it should
+     *     not tick at all
+     */
+    public int getInterval(ILevel level, float x, float y) {
+        if (level != currentLevel) return SUSPENDED;
+        float dx = x - focusX;
+        float dy = y - focusY;
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared < NEAR_DISTANCE * NEAR_DISTANCE) return 1;
+        if (distanceSquared < MIDDLE_DISTANCE * MIDDLE_DISTANCE) return MIDDLE_INTERVAL;
+        return FAR_INTERVAL;
+    }
+
+    /**
+     * @param monster Monster to check
+     * @param interval Interval of the monster
+     * @return if the monster ticks in this frame
+     */
+    public boolean isDue(Monster monster, int interval) {
+        if (interval == SUSPENDED) return false;
+        // the identity hash spreads the phases of the monsters
+        return Math.floorMod(frame + System.identityHashCode(monster), interval) == 0;
+    }
+}
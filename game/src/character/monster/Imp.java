@@ -41,7 +41,7 @@ public class Imp extends Monster {
 
     @Override
     public void setLevel(ILevel level) {
-        currentLevel = level;
-        currentPosition = level.getRandomTilePoint(LevelElement.FLOOR);
+        super.setLevel(level);
+        setPosition(level.getRandomTilePoint(LevelElement.FLOOR));
     }
 }
@@ -1,237 +1,341 @@
 package character.monster;
 
 import character.DungeonCharacter;
-import character.skills.BaseSkillEffect;
 import collision.CharacterDirection;
 import collision.Collidable;
-import collision.CollisionMap;
+import collision.CollisionLayer;
 import collision.Hitbox;
-import com.badlogic.gdx.ai.pfa.GraphPath;
+import collision.SolidityGrid;
+import java.util.concurrent.ThreadLocalRandom;
 import level.elements.ILevel;
+import level.elements.tile.DoorTile;
 import level.elements.tile.Tile;
 import level.tools.Coordinate;
 import level.tools.LevelElement;
+import levelgraph.LevelPathPlanner;
+import levelgraph.LevelPathPlanner.LevelPath;
+import metrics.MetricsRegistry;
+import metrics.PathfindingMetrics;
+import room.ConnectedComponents;
+import room.GridPath;
+import room.JumpPointPathFinder;
+import room.PathFinder;
+import room.PathService;
+import room.Room;
 import tools.Point;
 
 /** Monster */
 public abstract class Monster extends DungeonCharacter {
 
+    // for monsters without a path service, one per thread of the decide phase
+    private static final ThreadLocal<PathFinder> FINDERS =
+            ThreadLocal.withInitial(JumpPointPathFinder::new);
+    private static final LevelPathPlanner LEVEL_PLANNER = new LevelPathPlanner();
+
     // curent Point this Monster wants to move to
     private Point currentGoal;
-    private CollisionMap clevel;
+
+    // if the goal is in another room, the doors to walk through and the goal tile in that room
+    private LevelPath levelPath;
+    private Tile levelGoal;
+    private DoorTile doorToCross;
+
+    // path to the goal, pathIndex points to the tile the monster is standing on
+    private GridPath path;
+    private int pathIndex;
+    private int pathTerrainVersion;
+    private PathService.Request pendingPath;
+    private PathService pathService;
+    private AiScheduler aiScheduler;
+
+    // if set, the monster follows the flow field of its room to this character while it is near
+    private DungeonCharacter chaseTarget;
+    private float chaseRange;
+    private boolean chasing;
 
     public Monster(int hitpoints, float movementSpeed, Hitbox hitbox) {
         super(hitpoints, movementSpeed, hitbox);
+        hitbox.setLayer(CollisionLayer.ENEMY);
+        // skill effects report their hits through onHit
+        hitbox.setMask(CollisionLayer.NONE);
     }
 
     @Override
-    // TODO dont work
     protected CharacterDirection getDirection() {
+        if (!MetricsRegistry.isEnabled()) return findDirection();
+        long start = System.nanoTime();
+        CharacterDirection direction = findDirection();
+        PathfindingMetrics.recordAiTime(System.nanoTime() - start);
+        return direction;
+    }
+
+    // TODO dont work
+    private CharacterDirection findDirection() {
+        chasing = isChaseTargetNear();
+        if (chasing) return chase((Room) currentLevel);
         calculateGoal(false);
-        try {
-            // todo Path speichern, damit nicht jeden Frame der Weg neu berechnet werden muss
-            Tile currentTile = currentLevel.getTileAt(currentPosition.toCoordinate());
-            GraphPath<Tile> path =
-                    currentLevel.findPath(
-                            currentTile, currentLevel.getTileAt(currentGoal.toCoordinate()));
-
-            // todo warum ist index 0 leer?
-            if (path.getCount() <= 1) {
-                // ziel erreicht
-
-                calculateGoal(true);
+        int currentX = (int) getX();
+        int currentY = (int) getY();
+        int goalX = (int) currentGoal.x;
+        int goalY = (int) currentGoal.y;
+        if (levelPath != null) {
+            // walk to the next door, the goal is in another room
+            Tile target = levelPath.getNextTarget(currentLevel, levelGoal);
+            Coordinate next = target.getCoordinate();
+            if (target.getLevel() != currentLevel) {
+                // pushed off the planned doors
+                if (!(levelGoal.getLevel() instanceof Room room) || !setTravelGoal(room, levelGoal))
+                    calculateGoal(true);
                 return CharacterDirection.NONE;
             }
-            Tile nextTile = path.get(1);
-            Tile.Direction d = currentTile.directionTo(nextTile)[0];
-            CharacterDirection direction = convertTileDirectionToCharacterDirection(d);
-            ILevel level = currentLevel;
-            var collidable = clevel.getCollidables();
-            // TODO: create a better fix for hitbox
-            var temp = currentPosition;
-            switch (direction) {
-                case UP:
-                    currentPosition = moveup();
-                    break;
-                case DOWN:
-                    currentPosition = movedown();
-                    break;
-                case RIGHT:
-                    currentPosition = moveright();
-                    break;
-                case LEFT:
-                    currentPosition = moveleft();
-                    break;
-            }
-
-            for (Collidable collideable : collidable) {
-                // hitbox has to be moved to new position
-                var col = hitbox.collide(collideable.getHitbox());
-                if (col != CharacterDirection.NONE) {
-                    // collision
-
-                    currentPosition = temp;
-                    return handlePathCollision(direction);
-                }
+            if (target != levelGoal && next.x == currentX && next.y == currentY) {
+                doorToCross = (DoorTile) target;
+                return CharacterDirection.NONE;
             }
-            currentPosition = temp;
-            return convertTileDirectionToCharacterDirection(d);
+            goalX = next.x;
+            goalY = next.y;
+        }
+        boolean cached = followPath(currentX, currentY, goalX, goalY);
+        PathfindingMetrics.recordCacheLookup(cached);
+        if (!cached) {
+            path = null;
+            // wait for the path, it arrives in one of the next frames
+            if (pendingPath == null) requestPath(currentX, currentY, goalX, goalY);
+            if (path == null) return CharacterDirection.NONE;
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+        // index 0 is the tile the monster is standing on
+        if (pathIndex >= path.getCount() - 1) {
+            // ziel erreicht
             calculateGoal(true);
+            return CharacterDirection.NONE;
         }
-        return CharacterDirection.NONE;
+        int nextX = path.getX(pathIndex + 1);
+        int nextY = path.getY(pathIndex + 1);
+        CharacterDirection direction;
+        if (nextY > currentY) direction = CharacterDirection.UP;
+        else if (nextY < currentY) direction = CharacterDirection.DOWN;
+        else if (nextX < currentX) direction = CharacterDirection.LEFT;
+        else direction = CharacterDirection.RIGHT;
+        if (isStepBlocked(direction)) {
+            return alignWith(nextX, nextY, direction);
+        }
+        return direction;
     }
 
-    private CharacterDirection handlePathCollision(CharacterDirection direction) {
-        switch (direction) {
-            case UP:
-                return checkUP(direction);
-            case DOWN:
-                return checkDown(direction);
-            case RIGHT:
-                return checkRight(direction);
-            case LEFT:
-                return checkLeft(direction);
-            default:
-                return direction;
-        }
+    // the target positions are read from the store, they do not change during the decide phase
+    private boolean isChaseTargetNear() {
+        if (chaseTarget == null
+                || chaseTarget.getLevel() != currentLevel
+                || !(currentLevel instanceof Room)) return false;
+        float dx = chaseTarget.getX() - getX();
+        float dy = chaseTarget.getY() - getY();
+        return dx * dx + dy * dy <= chaseRange * chaseRange;
     }
 
-    private CharacterDirection convertTileDirectionToCharacterDirection(Tile.Direction d) {
-        switch (d) {
-            case N:
-                return CharacterDirection.UP;
-            case E:
-                return CharacterDirection.RIGHT;
-            case S:
-                return CharacterDirection.DOWN;
-            case W:
-                return CharacterDirection.LEFT;
-            default:
-                return CharacterDirection.NONE;
-        }
+    // follow the flow field, all monsters chasing the same target share it
+    private CharacterDirection chase(Room room) {
+        int currentX = (int) getX();
+        int currentY = (int) getY();
+        CharacterDirection direction =
+                room.getFlowField((int) chaseTarget.getX(), (int) chaseTarget.getY())
+                        .getDirection(currentX, currentY);
+        if (direction == CharacterDirection.NONE || !isStepBlocked(direction)) return direction;
+        return switch (direction) {
+            case UP -> alignWith(currentX, currentY + 1, direction);
+            case DOWN -> alignWith(currentX, currentY - 1, direction);
+            case LEFT -> alignWith(currentX - 1, currentY, direction);
+            default -> alignWith(currentX + 1, currentY, direction);
+        };
     }
 
-    private CharacterDirection checkLeft(CharacterDirection d) {
-        var tmp = moveleft();
-        if (!isHitboxOnFloor(tmp)) {
-            // check top left and bottom left for collision !
-            var corners = hitbox.getCorners();
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_LEFT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_LEFT].y + tmp.y)))
-                    .isAccessible()) {
-                // bottom left collision move to the TOP
-                d = CharacterDirection.DOWN;
-            }
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_TOP_LEFT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_TOP_LEFT].y + tmp.y)))
-                    .isAccessible()) {
-                // top left collision move to the bottom
-                d = CharacterDirection.DOWN;
-            }
-        }
-        return d;
+    @Override
+    protected float getDistanceToGoal() {
+        if (!chasing && (currentGoal == null || isGoalInOtherRoom()))
+            return Float.POSITIVE_INFINITY;
+        float goalX = chasing ? chaseTarget.getX() : currentGoal.x;
+        float goalY = chasing ? chaseTarget.getY() : currentGoal.y;
+        // from the center of the hitbox to the center of the goal tile
+        float dx = goalX + 0.5f - getX() - (hitbox.getMinX() + hitbox.getMaxX()) / 2;
+        float dy = goalY + 0.5f - getY() - (hitbox.getMinY() + hitbox.getMaxY()) / 2;
+        return (float) Math.sqrt(dx * dx + dy * dy);
     }
 
-    private CharacterDirection checkRight(CharacterDirection d) {
-        var tmp = moveright();
-        if (!isHitboxOnFloor(tmp)) {
-            // check top right and bottom right for collision !
-            var corners = hitbox.getCorners();
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_RIGHT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_RIGHT].y + tmp.y)))
-                    .isAccessible()) {
-                // bottom right collision move to the TOP
-                d = CharacterDirection.DOWN;
-            }
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_TOP_RIGHT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_TOP_RIGHT].y + tmp.y)))
-                    .isAccessible()) {
-                // top right collision move to the bottom
-                d = CharacterDirection.DOWN;
-            }
-        }
-        return d;
+    private boolean isGoalInOtherRoom() {
+        return levelGoal != null && levelGoal.getLevel() != currentLevel;
     }
 
     /**
-     * simple check for moving down
+     * Let the monster chase a character instead of walking to random goals, while the character is
+     * in the same room and near.
+     *
+     * <p>Chasing monsters use the {@link room.FlowField} of their room, so the cost per frame does
+     * not depend on the number of chasing monsters.
      *
-     * @param d the planned direction
-     * @return the recommended direction
+     * @param target Character to chase, null to only walk to random goals
+     * @param range Distance from which the monster starts chasing
      */
-    private CharacterDirection checkDown(CharacterDirection d) {
-        var tmp = movedown();
-        if (!isHitboxOnFloor(tmp)) {
-            // check bottom left and bottom right for collision ! first to collide and also
-            var corners = hitbox.getCorners();
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_LEFT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_LEFT].y + tmp.y)))
-                    .isAccessible()) {
-                // bottom left collision move to the right
-                d = CharacterDirection.LEFT;
-            }
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_RIGHT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_BOTTOM_RIGHT].y + tmp.y)))
-                    .isAccessible()) {
-                // bottom right collision move to the left
-                d = CharacterDirection.LEFT;
-            }
+    public void setChaseTarget(DungeonCharacter target, float range) {
+        chaseTarget = target;
+        chaseRange = range;
+    }
+
+    /**
+     * Let the monster walk to a tile, also in another room of the level, e.g. to follow the hero
+     * through a door or to go to a quest room.
+     *
+     * <p>The doors to walk through are planned with the {@link LevelPathPlanner}. Once the goal is
+     * reached, the monster walks to random goals in its room again.
+     *
+     * @param room Room of the goal
+     * @param goal Tile to walk to
+     * @return false if the goal can not be reached from the position of the monster
+     */
+    public boolean setTravelGoal(Room room, Tile goal) {
+        if (!(currentLevel instanceof Room start)) return false;
+        Coordinate target = goal.getCoordinate();
+        Coordinate position = new Coordinate((int) getX(), (int) getY());
+        LevelPath found = LEVEL_PLANNER.plan(start, position, room, target);
+        if (found == null) return false;
+        levelPath = found;
+        levelGoal = goal;
+        currentGoal = target.toPoint();
+        path = null;
+        pendingPath = null;
+        return true;
+    }
+
+    /**
+     * Move the cursor of the cached path to the current tile.
+     *
+     * @param x x of the tile the monster is standing on
+     * @param y y of the tile the monster is standing on
+     * @param goalX x of the tile the monster wants to reach
+     * @param goalY y of the tile the monster wants to reach
+     * @return false if the path has to be planned again, because there is none, the goal or the
+     *     terrain changed, or the monster left the path
+     */
+    private boolean followPath(int x, int y, int goalX, int goalY) {
+        if (path == null || pathTerrainVersion != getTerrainVersion()) return false;
+        int last = path.getCount() - 1;
+        if (path.getX(last) != goalX || path.getY(last) != goalY) return false;
+        if (pathIndex < last && isOn(pathIndex + 1, x, y)) pathIndex++;
+        return isOn(pathIndex, x, y);
+    }
+
+    private boolean isOn(int index, int x, int y) {
+        return path.getX(index) == x && path.getY(index) == y;
+    }
+
+    private void requestPath(int x, int y, int goalX, int goalY) {
+        SolidityGrid grid = getTerrain();
+        if (pathService != null) {
+            pendingPath = pathService.request(this::onPathFound, grid, x, y, goalX, goalY);
+        } else {
+            PathFinder finder = FINDERS.get();
+            long start = PathfindingMetrics.startSearch();
+            GridPath found = finder.findPath(grid, x, y, goalX, goalY);
+            PathfindingMetrics.recordSearch(
+                    "grid", start, finder.getExpandedNodes(), found != null);
+            usePath(found);
         }
-        return d;
+    }
+
+    private void onPathFound(PathService.Request request) {
+        // a newer request or a level change replaced this one
+        if (request != pendingPath) return;
+        pendingPath = null;
+        if (request.getGrid() == getTerrain()) usePath(request.getPath());
+    }
+
+    private void usePath(GridPath path) {
+        if (path == null) {
+            // the goal can not be reached
+            calculateGoal(true);
+            return;
+        }
+        this.path = path;
+        pathIndex = 0;
+        pathTerrainVersion = getTerrainVersion();
+    }
+
+    // other levels never change their terrain, a new level resets the path
+    private int getTerrainVersion() {
+        return currentLevel instanceof Room room ? room.getTerrainVersion() : 0;
     }
 
     /**
-     * simple check for moving up
+     * @param pathService Plans the paths of this monster on worker threads, null to plan them
+     *     directly
+     */
+    public void setPathService(PathService pathService) {
+        this.pathService = pathService;
+    }
+
+    private boolean isStepBlocked(CharacterDirection direction) {
+        return sweep(direction, movementSpeed).isHit();
+    }
+
+    /**
+     * The step to the next tile of the path is blocked, so the hitbox sticks out of the corridor
+     * of that tile. Move sideways until it fits.
      *
-     * @param d the planned direction
-     * @return the recommended direction
+     * @param nextX x of the next tile
+     * @param nextY y of the next tile
+     * @param direction Direction to the next tile
+     * @return The direction to move in
      */
-    private CharacterDirection checkUP(CharacterDirection d) {
-        var tmp = moveup();
-        if (!isHitboxOnFloor(tmp)) {
-            // check top left and top right for collision ! first to collide and also
-            var corners = hitbox.getCorners();
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_TOP_LEFT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_TOP_LEFT].y + tmp.y)))
-                    .isAccessible()) {
-                // top left collision move to the right
-                d = CharacterDirection.LEFT;
-            }
-            if (!currentLevel
-                    .getTileAt(
-                            new Coordinate(
-                                    (int) (corners[Hitbox.CORNER_TOP_RIGHT].x + tmp.x),
-                                    (int) (corners[Hitbox.CORNER_TOP_RIGHT].y + tmp.y)))
-                    .isAccessible()) {
-                // top right collision move to the left
-                d = CharacterDirection.LEFT;
-            }
+    private CharacterDirection alignWith(int nextX, int nextY, CharacterDirection direction) {
+        if (direction == CharacterDirection.UP || direction == CharacterDirection.DOWN) {
+            if (getX() + hitbox.getMaxX() > nextX + 1) return CharacterDirection.LEFT;
+            if (getX() + hitbox.getMinX() < nextX) return CharacterDirection.RIGHT;
+        } else {
+            if (getY() + hitbox.getMaxY() > nextY + 1) return CharacterDirection.DOWN;
+            if (getY() + hitbox.getMinY() < nextY) return CharacterDirection.UP;
         }
-        return d;
+        return direction;
+    }
+
+    @Override
+    public void decide() {
+        if (aiScheduler == null) {
+            super.decide();
+            return;
+        }
+        // far away monsters tick less often, but make up for the skipped ticks
+        int interval = aiScheduler.getInterval(currentLevel, getX(), getY());
+        if (aiScheduler.isDue(this, interval)) plan(getDirection(), movementSpeed * interval);
+    }
+
+    @Override
+    public void integrate() {
+        super.integrate();
+        if (doorToCross == null) return;
+        // through the door like the hero, onto the doorstep in the next room
+        DoorTile otherDoor = doorToCross.getOtherDoor();
+        doorToCross = null;
+        super.setLevel(otherDoor.getLevel());
+        path = null;
+        pendingPath = null;
+        setPosition(otherDoor.getDoorstep().getCoordinate().toPoint());
+    }
+
+    /**
+     * @param aiScheduler Decides in which frames this monster thinks and moves, null for every
+     *     frame
+     */
+    public void setAiScheduler(AiScheduler aiScheduler) {
+        this.aiScheduler = aiScheduler;
+    }
+
+    @Override
+    public void setLevel(ILevel level) {
+        super.setLevel(level);
+        path = null;
+        pendingPath = null;
+        levelPath = null;
+        levelGoal = null;
+        doorToCross = null;
     }
 
     /**
@@ -240,21 +344,45 @@ public abstract class Monster extends DungeonCharacter {
      * @param force set True if you want to force a new goal
      */
     protected void calculateGoal(boolean force) {
-        if (currentGoal == null || currentGoal.equals(currentPosition) || force)
-            currentGoal = currentLevel.getRandomTilePoint(LevelElement.FLOOR);
+        if (currentGoal == null || (!isGoalInOtherRoom() && isAt(currentGoal)) || force) {
+            levelPath = null;
+            levelGoal = null;
+            currentGoal = getReachableGoal();
+        }
     }
 
-    @Override
-    public void colide(Collidable other, CharacterDirection from) {
-        if (other instanceof BaseSkillEffect) {
-            BaseSkillEffect effect = (BaseSkillEffect) other;
-            hitpoints -= effect.damage;
-            if (hitpoints <= 0) die();
-            knockback(from, 15f);
+    private boolean isAt(Point point) {
+        return point.x == getX() && point.y == getY();
+    }
+
+    // a random floor tile of the area the monster stands in, so there always is a path
+    private Point getReachableGoal() {
+        if (currentLevel instanceof Room room) {
+            Point goal = getRandomFloorTile(room, (int) getX(), (int) getY());
+            if (goal != null) return goal;
         }
+        return currentLevel.getRandomTilePoint(LevelElement.FLOOR);
     }
 
-    public void setCLevel(CollisionMap clevel) {
-        this.clevel = clevel;
+    // a random floor tile of the area the given tile is in, null if the tile is solid. Runs in the
+    // parallel decide phase, so every thread uses its own random number generator
+    private static Point getRandomFloorTile(Room room, int x, int y) {
+        ConnectedComponents components = room.getComponents();
+        int component = components.getComponent(x, y);
+        if (component == ConnectedComponents.NONE) return null;
+        int tile = components.getRandomFloorTile(component, ThreadLocalRandom.current());
+        if (tile < 0) return null;
+        int width = components.getWidth();
+        return new Point(tile % width, tile / width);
+    }
+
+    @Override
+    public void colide(Collidable other, CharacterDirection from) {}
+
+    @Override
+    public void onHit(int damage, CharacterDirection from) {
+        hitpoints -= damage;
+        if (hitpoints <= 0) die();
+        knockback(from, 15f);
     }
 }
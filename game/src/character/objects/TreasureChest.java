@@ -1,9 +1,9 @@
 package character.objects;
 
 import basiselements.AnimatableElement;
-import character.player.Hero;
 import collision.CharacterDirection;
 import collision.Collidable;
+import collision.CollisionLayer;
 import collision.Hitbox;
 import graphic.Animation;
 import java.util.ArrayList;
@@ -40,6 +40,8 @@ public class TreasureChest extends AnimatableElement implements Collidable {
 
         hitbox = new Hitbox(6, 6);
         hitbox.setCollidable(this);
+        hitbox.setLayer(CollisionLayer.OBJECT);
+        hitbox.setMask(CollisionLayer.HERO);
         inventory = new ArrayList<>();
 
         this.currentPosition = position;
@@ -73,7 +75,8 @@ public class TreasureChest extends AnimatableElement implements Collidable {
      */
     @Override
     public void colide(Collidable other, CharacterDirection from) {
-        if (other instanceof Hero && !isOpen) {
+        // the mask only lets the hero through
+        if (!isOpen) {
             open();
         }
     }
@@ -1,11 +1,11 @@
 package character.player;
 
 import character.DungeonCharacter;
-import character.monster.Imp;
 import character.skills.BaseMeleeSkill;
 import character.skills.BaseSkill;
 import collision.CharacterDirection;
 import collision.Collidable;
+import collision.CollisionLayer;
 import collision.Hitbox;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
@@ -30,6 +30,8 @@ public class Hero extends DungeonCharacter {
     public Hero() {
         // 16x28
         super(5, 0.3f, new Hitbox(6, 6));
+        hitbox.setLayer(CollisionLayer.HERO);
+        hitbox.setMask(CollisionLayer.ENEMY | CollisionLayer.OBJECT);
         int frameTime = 5;
         List<String> texturePaths =
                 TextureHandler.getInstance().getTexturePaths("knight_m_idle_anim_f");
@@ -89,13 +91,14 @@ public class Hero extends DungeonCharacter {
 
     @Override
     public void setLevel(ILevel level) {
-        currentLevel = level;
-        currentPosition = level.getStartTile().getCoordinate().toPoint();
+        super.setLevel(level);
+        setPosition(level.getStartTile().getCoordinate().toPoint());
     }
 
     @Override
     public void colide(Collidable other, CharacterDirection from) {
-        if (other instanceof Imp) {
+        // the mask only lets enemies and objects through, objects do not hurt
+        if ((other.getHitbox().getLayer() & CollisionLayer.ENEMY) != 0) {
             hitpoints -= 2;
             if (hitpoints <= 0) die();
             knockback(from, 2f);
@@ -103,8 +106,8 @@ public class Hero extends DungeonCharacter {
     }
 
     @Override
-    public void update() {
-        super.update();
+    public void tick() {
+        super.tick();
         skills();
     }
 
@@ -43,8 +43,8 @@ public class BaseMeleeEffect extends BaseSkillEffect {
     }
 
     @Override
-    public void update() {
-        super.update();
+    public void tick() {
+        super.tick();
         frame++;
         if (frame >= frames) {
             curhitbox = (curhitbox + 1) % hitboxes.length;
@@ -58,6 +58,8 @@ public class BaseMeleeEffect extends BaseSkillEffect {
 
     @Override
     public void colide(Collidable other, CharacterDirection from) {
+        // the mask only lets the targets of the skill through
+        other.onHit(damage, from.inverse());
         alive = 0;
     }
 
@@ -68,6 +70,18 @@ public class BaseMeleeEffect extends BaseSkillEffect {
 
     @Override
     public Point getPosition() {
-        return new Point(caster.getPosition().x + offset.x, caster.getPosition().y + offset.y);
+        // follows the caster
+        Point position = caster.getPosition();
+        return new Point(position.x + offset.x, position.y + offset.y);
+    }
+
+    @Override
+    public float getX() {
+        return caster.getX() + offset.x;
+    }
+
+    @Override
+    public float getY() {
+        return caster.getY() + offset.y;
     }
 }
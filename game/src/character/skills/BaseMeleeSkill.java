@@ -2,6 +2,7 @@ package character.skills;
 
 import collision.CharacterDirection;
 import collision.Collidable;
+import collision.CollisionLayer;
 import collision.Hitbox;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,13 @@ public class BaseMeleeSkill extends BaseSkill {
         this.offsets = offsets;
         this.textures = textures;
         this.hitboxes = hitboxes;
+        targets = new Target[] {Target.enemies};
+        for (Hitbox[] directionHitboxes : hitboxes.values()) {
+            for (Hitbox hitbox : directionHitboxes) {
+                hitbox.setLayer(CollisionLayer.SKILL);
+                hitbox.setMask(getTargetMask());
+            }
+        }
     }
 
     @Override
@@ -1,6 +1,7 @@
 package character.skills;
 
 import collision.CharacterDirection;
+import collision.CollisionLayer;
 import java.time.Instant;
 
 public abstract class BaseSkill {
@@ -27,5 +28,22 @@ public abstract class BaseSkill {
         return null;
     }
 
+    /**
+     * @return The {@link CollisionLayer} bits of all targets of this skill
+     */
+    public int getTargetMask() {
+        int mask = CollisionLayer.NONE;
+        if (targets == null) return mask;
+        for (Target target : targets) {
+            mask |=
+                    switch (target) {
+                        case hero -> CollisionLayer.HERO;
+                        case enemies -> CollisionLayer.ENEMY;
+                        case environment -> CollisionLayer.ENVIRONMENT;
+                    };
+        }
+        return mask;
+    }
+
     protected abstract BaseSkillEffect spawn(CharacterDirection direction);
 }
@@ -2,9 +2,11 @@ package character.skills;
 
 import basiselements.AnimatableElement;
 import collision.Collidable;
+import simulation.Tickable;
 
-public abstract class BaseSkillEffect extends AnimatableElement implements Collidable {
+public abstract class BaseSkillEffect extends AnimatableElement implements Collidable, Tickable {
     protected int alive;
+    private boolean clockDriven;
     protected Collidable caster;
     public int damage = 2;
 
@@ -13,8 +15,21 @@ public abstract class BaseSkillEffect extends AnimatableElement implements Colli
         this.caster = caster;
     }
 
+    /**
+     * @param clockDriven true if {@link #tick()} is called by a {@link simulation.SimulationClock},
+     *     false to advance one tick in every frame
+     */
+    public void setClockDriven(boolean clockDriven) {
+        this.clockDriven = clockDriven;
+    }
+
     @Override
     public void update() {
+        if (!clockDriven) tick();
+    }
+
+    @Override
+    public void tick() {
         alive--;
     }
 
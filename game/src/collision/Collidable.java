@@ -14,6 +14,24 @@ public interface Collidable {
      */
     Point getPosition();
 
+    /**
+     * Collision checks read the position through this method, which does not create a point.
+     *
+     * @return x of the position
+     */
+    default float getX() {
+        return getPosition().x;
+    }
+
+    /**
+     * Collision checks read the position through this method, which does not create a point.
+     *
+     * @return y of the position
+     */
+    default float getY() {
+        return getPosition().y;
+    }
+
     /**
      * Action to do on a collision
      *
@@ -21,4 +39,13 @@ public interface Collidable {
      * @param from Direction from where you colide
      */
     void colide(Collidable other, CharacterDirection from);
+
+    /**
+     * Called by a skill effect whose mask accepted this object, instead of checking the type of
+     * the effect in {@link #colide(Collidable, CharacterDirection)}.
+     *
+     * @param damage Damage of the effect
+     * @param from Direction from where the effect hits
+     */
+    default void onHit(int damage, CharacterDirection from) {}
 }
@@ -0,0 +1,18 @@
+package collision;
+
+/**
+ * Bits for the layer and the mask of a {@link Hitbox}.
+ *
+ * <p>The layer tells what a hitbox is, the mask tells with which layers it wants to collide.
+ */
+public final class CollisionLayer {
+    public static final int NONE = 0;
+    public static final int HERO = 1;
+    public static final int ENEMY = 1 << 1;
+    public static final int ENVIRONMENT = 1 << 2;
+    public static final int OBJECT = 1 << 3;
+    public static final int SKILL = 1 << 4;
+    public static final int ALL = ~0;
+
+    private CollisionLayer() {}
+}
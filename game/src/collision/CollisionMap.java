@@ -5,27 +5,32 @@ import level.elements.ILevel;
 import level.elements.tile.Tile;
 import tools.Point;
 
-/** A Collection of all collidables of a level. */
+/**
+ * A Collection of all collidables of a level.
+ *
+ * <p>Terrain checks go through the {@link SolidityGrid}, the collidables are the merged rectangles
+ * of the solid tiles and the level borders.
+ */
 public class CollisionMap {
     private Collidable[] collidables;
+    private SolidityGrid solidityGrid;
 
     /**
      * Creates all collidables of the given level.
      *
+     * <p>The terrain is stored in a {@link SolidityGrid}. Only for the few cases that need explicit
+     * boxes, adjacent solid tiles are merged into rectangles.
+     *
      * @param level
      */
     public void regenHitboxen(ILevel level) {
-        ArrayList<Collidable> tiles = new ArrayList<>();
         Tile[][] layout = level.getLayout();
-        for (var tilerow : layout) {
-            for (var tile : tilerow) {
-                if (!tile.isAccessible()) {
-                    TileCollidable tileCollidable = new TileCollidable(tile, new Hitbox(16, 16));
-                    tileCollidable.getHitbox().setCollidable(tileCollidable);
-
-                    tiles.add(tileCollidable);
-                }
-            }
+        solidityGrid = SolidityGrid.fromLayout(layout);
+        ArrayList<Collidable> tiles = new ArrayList<>();
+        for (SolidityGrid.Rect rect : solidityGrid.mergeRectangles()) {
+            tiles.add(
+                    new RectCollidable(
+                            new Point(rect.x(), rect.y()), 16 * rect.width(), 16 * rect.height()));
         }
         int width = layout[0].length;
         int height = layout.length;
@@ -37,6 +42,16 @@ public class CollisionMap {
         collidables = tiles.toArray(new Collidable[0]);
     }
 
+    /**
+     * @return The solid tiles of the level
+     */
+    public SolidityGrid getSolidityGrid() {
+        return solidityGrid;
+    }
+
+    /**
+     * @return The merged rectangles of the solid tiles and the level borders
+     */
     public Collidable[] getCollidables() {
         return collidables;
     }
@@ -0,0 +1,114 @@
+package collision;
+
+import java.util.Arrays;
+
+/**
+ * Preallocated list of contacts between two collidables.
+ *
+ * <p>A contact is packed into a single {@code long}: the smaller id, the bigger id and the
+ * direction from the first to the second collidable. Sorting the buffer therefore orders the
+ * contacts by their ids, which makes the dispatch deterministic and puts duplicates next to each
+ * other.
+ */
+public class ContactBuffer {
+    // ids are limited to 29 bits, so both ids and the direction fit into one long
+    private static final int ID_BITS = 29;
+    private static final int DIRECTION_BITS = 3;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final long DIRECTION_MASK = (1L << DIRECTION_BITS) - 1;
+    private static final CharacterDirection[] DIRECTIONS = CharacterDirection.values();
+
+    private long[] contacts;
+    private int size;
+
+    public ContactBuffer() {
+        this(64);
+    }
+
+    /**
+     * @param capacity Number of contacts the buffer can hold before it has to grow
+     */
+    public ContactBuffer(int capacity) {
+        contacts = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Add a contact
+     *
+     * @param idA Id of the first collidable
+     * @param idB Id of the second collidable
+     * @param direction Direction from which the first collidable consolidates with the second
+     */
+    public void add(int idA, int idB, CharacterDirection direction) {
+        if (size == contacts.length) contacts = Arrays.copyOf(contacts, size * 2);
+        if (idA > idB) {
+            int tmp = idA;
+            idA = idB;
+            idB = tmp;
+            direction = direction.inverse();
+        }
+        contacts[size++] =
+                ((((long) idA << ID_BITS) | idB) << DIRECTION_BITS) | direction.ordinal();
+    }
+
+    /**
+     * Add all contacts of another buffer
+     *
+     * @param other
+     */
+    public void addAll(ContactBuffer other) {
+        if (size + other.size > contacts.length) {
+            contacts = Arrays.copyOf(contacts, Math.max(size + other.size, contacts.length * 2));
+        }
+        System.arraycopy(other.contacts, 0, contacts, size, other.size);
+        size += other.size;
+    }
+
+    /** Sort the contacts by their ids and keep only the first contact of every pair. */
+    public void sortAndDeduplicate() {
+        Arrays.sort(contacts, 0, size);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long pair = contacts[i] >>> DIRECTION_BITS;
+            if (kept == 0 || pair != contacts[kept - 1] >>> DIRECTION_BITS)
+                contacts[kept++] = contacts[i];
+        }
+        size = kept;
+    }
+
+    /** Remove all contacts, the memory is kept. */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return Number of contacts in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Index of the contact
+     * @return The smaller id of the contact
+     */
+    public int getFirst(int index) {
+        return (int) ((contacts[index] >>> (DIRECTION_BITS + ID_BITS)) & ID_MASK);
+    }
+
+    /**
+     * @param index Index of the contact
+     * @return The bigger id of the contact
+     */
+    public int getSecond(int index) {
+        return (int) ((contacts[index] >>> DIRECTION_BITS) & ID_MASK);
+    }
+
+    /**
+     * @param index Index of the contact
+     * @return Direction from which the first collidable consolidates with the second
+     */
+    public CharacterDirection getDirection(int index) {
+        return DIRECTIONS[(int) (contacts[index] & DIRECTION_MASK)];
+    }
+}
@@ -0,0 +1,156 @@
+package collision;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the centers of moving collidables, for neighbour queries.
+ *
+ * <p>The grid is rebuilt every frame with a counting sort into one cell per tile. All arrays are
+ * kept and only grow, so rebuilding and querying do not allocate.
+ */
+public class EntityGrid {
+    private Collidable[] collidables = new Collidable[16];
+    private float[] centerX = new float[16];
+    private float[] centerY = new float[16];
+    private int count;
+
+    private int width;
+    private int height;
+    // entities of cell i are entries[cellStart[i]] to entries[cellStart[i + 1] - 1]
+    private int[] cellStart = new int[1];
+    private int[] entries = new int[16];
+    private int[] cellOf = new int[16];
+
+    /**
+     * Sort the collidables into the grid.
+     *
+     * @param list Collidables to sort in
+     * @param width Width of the level in tiles
+     * @param height Height of the level in tiles
+     */
+    public void build(List<? extends Collidable> list, int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        count = list.size();
+        if (collidables.length < count) {
+            int capacity = Math.max(count, collidables.length * 2);
+            collidables = Arrays.copyOf(collidables, capacity);
+            centerX = new float[capacity];
+            centerY = new float[capacity];
+            entries = new int[capacity];
+            cellOf = new int[capacity];
+        }
+        int cells = this.width * this.height;
+        if (cellStart.length < cells + 1) cellStart = new int[cells + 1];
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+
+        for (int i = 0; i < count; i++) {
+            Collidable collidable = list.get(i);
+            Hitbox hitbox = collidable.getHitbox();
+            collidables[i] = collidable;
+            centerX[i] = collidable.getX() + (hitbox.getMinX() + hitbox.getMaxX()) / 2;
+            centerY[i] = collidable.getY() + (hitbox.getMinY() + hitbox.getMaxY()) / 2;
+            cellOf[i] = cell(centerX[i], centerY[i]);
+            cellStart[cellOf[i]]++;
+        }
+        // cellStart[cell] is the end of the cell now, filling back to front moves it to the start
+        for (int cell = 1; cell < cells; cell++) cellStart[cell] += cellStart[cell - 1];
+        cellStart[cells] = count;
+        for (int i = count - 1; i >= 0; i--) entries[--cellStart[cellOf[i]]] = i;
+        for (int i = count; i < collidables.length && collidables[i] != null; i++)
+            collidables[i] = null;
+    }
+
+    private int cell(float x, float y) {
+        int cellX = Math.max(0, Math.min(width - 1, (int) Math.floor(x)));
+        int cellY = Math.max(0, Math.min(height - 1, (int) Math.floor(y)));
+        return cellY * width + cellX;
+    }
+
+    /**
+     * Find the entities whose center is within the radius of a point.
+     *
+     * @param x x of the point
+     * @param y y of the point
+     * @param radius Radius in tiles
+     * @param out Receives the indices of the found entities, the search stops when it is full
+     * @return Number of found entities
+     */
+    public int queryRadius(float x, float y, float radius, int[] out) {
+        int found = 0;
+        float radiusSquared = radius * radius;
+        int fromX = Math.max(0, (int) Math.floor(x - radius));
+        int toX = Math.min(width - 1, (int) Math.floor(x + radius));
+        int fromY = Math.max(0, (int) Math.floor(y - radius));
+        int toY = Math.min(height - 1, (int) Math.floor(y + radius));
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                int cell = cellY * width + cellX;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int entity = entries[i];
+                    float dx = centerX[entity] - x;
+                    float dy = centerY[entity] - y;
+                    if (dx * dx + dy * dy > radiusSquared) continue;
+                    if (found == out.length) return found;
+                    out[found++] = entity;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The entities sorted by cell, row by row. Entities of the same cell are next to each other, so
+     * splitting this order into runs splits the entities into areas of the level.
+     *
+     * @param position Position in the cell order, from 0 to {@link #size()} - 1
+     * @return Index of the entity at that position
+     */
+    public int getSorted(int position) {
+        return entries[position];
+    }
+
+    /**
+     * @param position Position in the cell order, from 0 to {@link #size()}
+     * @return The first position at or after the given one where a new cell starts, {@link
+     *     #size()} if there is none
+     */
+    public int nextCellStart(int position) {
+        while (position > 0
+                && position < count
+                && cellOf[entries[position]] == cellOf[entries[position - 1]]) position++;
+        return position;
+    }
+
+    /**
+     * @return Number of entities in the grid
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param index Index of an entity
+     * @return The entity
+     */
+    public Collidable get(int index) {
+        return collidables[index];
+    }
+
+    /**
+     * @param index Index of an entity
+     * @return x of the center of the hitbox
+     */
+    public float getCenterX(int index) {
+        return centerX[index];
+    }
+
+    /**
+     * @param index Index of an entity
+     * @return y of the center of the hitbox
+     */
+    public float getCenterY(int index) {
+        return centerY[index];
+    }
+}
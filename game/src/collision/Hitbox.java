@@ -2,17 +2,24 @@ package collision;
 
 import tools.Point;
 
-/** A simple hitbox which follows a collideable */
+/**
+ * A simple hitbox which follows a collideable
+ *
+ * <p>The hitbox is an axis aligned box stored as plain float bounds relative to the position of
+ * its collidable, so collision tests do not create any objects.
+ */
 public class Hitbox {
-    public static final int CORNER_BOTTOM_LEFT = 0,
-            CORNER_TOP_LEFT = 1,
-            CORNER_TOP_RIGHT = 2,
-            CORNER_BOTTOM_RIGHT = 3;
-
-    // Local Position of the hitbox, bottom left is always (0|0), add position.x/y to get the
-    // position of the hitbox in the game
-    private Point[] corners;
+    /** Number of floats per box in the arrays used by {@link #collideAll(float[], int, int[])} */
+    public static final int BOX_STRIDE = 4;
+
+    // Local bounds of the hitbox, add position.x/y of the collidable to get the bounds in the game
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
     private Collidable collidable;
+    private int layer = CollisionLayer.ALL;
+    private int mask = CollisionLayer.ALL;
 
     /**
      * Position of the lower left corner of the hitbox (0|0)
@@ -30,82 +37,208 @@ public class Hitbox {
      */
     public Hitbox(int widthInPixel, int heightInPixel, Point offset) {
         // from pixel to point 16px x 16px =1x1
-        float width = widthInPixel / 16f;
-        float height = heightInPixel / 16f;
-        float offsetX = offset.x / 16f;
-        float offsetY = offset.y / 16f;
+        minX = offset.x / 16f;
+        minY = offset.y / 16f;
+        maxX = minX + widthInPixel / 16f;
+        maxY = minY + heightInPixel / 16f;
+    }
 
-        corners = new Point[4];
-        corners[CORNER_BOTTOM_LEFT] = new Point(offsetX, offsetY);
-        corners[CORNER_TOP_LEFT] = new Point(offsetX, offsetY + height);
-        corners[CORNER_TOP_RIGHT] = new Point(offsetX + width, offsetY + height);
-        corners[CORNER_BOTTOM_RIGHT] = new Point(offsetX + width, offsetY);
+    /**
+     * @return local x of the left edge
+     */
+    public float getMinX() {
+        return minX;
     }
 
     /**
-     * Get the Corners
-     *
-     * <p>topLeft: 1 , topRight: 2 bottomLeft:0 , bottomRight: 3
-     *
-     * @return The local positions of the corners.
+     * @return local y of the bottom edge
+     */
+    public float getMinY() {
+        return minY;
+    }
+
+    /**
+     * @return local x of the right edge
+     */
+    public float getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * @return local y of the top edge
+     */
+    public float getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * @return width of the hitbox
      */
-    public Point[] getCorners() {
-        return corners;
+    public float getWidth() {
+        return maxX - minX;
     }
 
     /**
-     * Check if two hitboxes collided with each other. TODO: improve
+     * @return height of the hitbox
+     */
+    public float getHeight() {
+        return maxY - minY;
+    }
+
+    /**
+     * @return The {@link CollisionLayer} bits of this hitbox
+     */
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * @param layer The {@link CollisionLayer} bits of this hitbox
+     */
+    public void setLayer(int layer) {
+        this.layer = layer;
+    }
+
+    /**
+     * @return The {@link CollisionLayer} bits this hitbox wants to collide with
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @param mask The {@link CollisionLayer} bits this hitbox wants to collide with
+     */
+    public void setMask(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * @param other Hitbox to check
+     * @return if the other hitbox is on a layer of the mask of this hitbox
+     */
+    public boolean accepts(Hitbox other) {
+        return (mask & other.layer) != 0;
+    }
+
+    /**
+     * Check if two hitboxes collided with each other.
      *
      * @param other Hitbox to check for collision with
      * @return The direction from which this Hitbox consolidates with the other. NONE if there is no
      *     collision
      */
     public CharacterDirection collide(Hitbox other) {
-        // get real position data for the bottomLeft and topRight
-        Point bottomLeft = new Point(corners[Hitbox.CORNER_BOTTOM_LEFT]);
-        bottomLeft.x += collidable.getPosition().x;
-        bottomLeft.y += collidable.getPosition().y;
-        Point topRight = new Point(corners[Hitbox.CORNER_TOP_RIGHT]);
-        topRight.x += collidable.getPosition().x;
-        topRight.y += collidable.getPosition().y;
-
-        // get real position data for the bottomLeft and topRight of the possible collided
-        Point otherBottomLeft = new Point(other.corners[Hitbox.CORNER_BOTTOM_LEFT]);
-        otherBottomLeft.x += other.collidable.getPosition().x;
-        otherBottomLeft.y += other.collidable.getPosition().y;
-        Point otherTopRight = new Point(other.corners[Hitbox.CORNER_TOP_RIGHT]);
-        otherTopRight.x += other.collidable.getPosition().x;
-        otherTopRight.y += other.collidable.getPosition().y;
+        float x = collidable.getX();
+        float y = collidable.getY();
+        float otherX = other.collidable.getX();
+        float otherY = other.collidable.getY();
+        return collide(
+                x + minX,
+                y + minY,
+                x + maxX,
+                y + maxY,
+                otherX + other.minX,
+                otherY + other.minY,
+                otherX + other.maxX,
+                otherY + other.maxY);
+    }
+
+    /**
+     * Check if two boxes given by their bounds in the game collided with each other.
+     *
+     * @return The direction from which the first box consolidates with the second. NONE if there is
+     *     no collision
+     */
+    public static CharacterDirection collide(
+            float minX,
+            float minY,
+            float maxX,
+            float maxY,
+            float otherMinX,
+            float otherMinY,
+            float otherMaxX,
+            float otherMaxY) {
         // easy axis alligned collision check
         // https://developer.mozilla.org/en-US/docs/Games/Techniques/2D_collision_detection
-        if (bottomLeft.x < otherTopRight.x
-                && topRight.x > otherBottomLeft.x
-                && bottomLeft.y < otherTopRight.y
-                && topRight.y > otherBottomLeft.y) {
-            // any collision solve the Direction
-
-            Point centerthis = getCenter(bottomLeft, topRight);
-            Point centerOther = getCenter(otherBottomLeft, otherTopRight);
-
-            float y = centerOther.y - centerthis.y;
-            float x = centerOther.x - centerthis.x;
-            float rads = (float) Math.atan2(y, x);
-            double piQuarter = Math.PI / 4;
-            // Direction based on the radians
-            if (rads < 3 * -piQuarter) {
-                return CharacterDirection.LEFT;
-            } else if (rads < -piQuarter) {
-                return CharacterDirection.UP;
-            } else if (rads < piQuarter) {
-                return CharacterDirection.RIGHT;
-            } else if (rads < 3 * piQuarter) {
-                return CharacterDirection.DOWN;
-            } else {
-                return CharacterDirection.LEFT;
+        if (minX < otherMaxX && maxX > otherMinX && minY < otherMaxY && maxY > otherMinY) {
+            // the centers are compared doubled, halving does not change the direction
+            return resolveDirection(
+                    (otherMinX + otherMaxX) - (minX + maxX),
+                    (otherMinY + otherMaxY) - (minY + maxY));
+        }
+        return CharacterDirection.NONE;
+    }
+
+    /**
+     * Solve the direction of a collision from the vector between the two centers.
+     *
+     * <p>The vector is split into four quarters along the diagonals, just like the angle of the
+     * vector would be.
+     *
+     * @param dx x of the vector from this center to the other center
+     * @param dy y of the vector from this center to the other center
+     * @return The direction from which this Hitbox consolidates with the other
+     */
+    public static CharacterDirection resolveDirection(float dx, float dy) {
+        if (dy < dx && dy >= -dx) {
+            return CharacterDirection.RIGHT;
+        } else if (dy >= dx && dy > -dx) {
+            return CharacterDirection.DOWN;
+        } else if (dy <= dx && dy < -dx) {
+            return CharacterDirection.UP;
+        } else if (dx == 0 && dy == 0) {
+            // same center, an angle of zero
+            return CharacterDirection.RIGHT;
+        }
+        return CharacterDirection.LEFT;
+    }
+
+    /**
+     * Check this hitbox against many boxes at once.
+     *
+     * <p>Every box takes {@link #BOX_STRIDE} floats in the array: minX, minY, maxX, maxY in game
+     * coordinates.
+     *
+     * @param boxes Packed bounds of the boxes to check
+     * @param count Number of boxes in the array
+     * @param outHits Receives the indices of all boxes this hitbox collides with, has to hold at
+     *     least count entries
+     * @return Number of indices written to outHits
+     */
+    public int collideAll(float[] boxes, int count, int[] outHits) {
+        float x = collidable.getX();
+        float y = collidable.getY();
+        float worldMinX = x + minX;
+        float worldMinY = y + minY;
+        float worldMaxX = x + maxX;
+        float worldMaxY = y + maxY;
+        int hits = 0;
+        for (int i = 0, offset = 0; i < count; i++, offset += BOX_STRIDE) {
+            if (worldMinX < boxes[offset + 2]
+                    && worldMaxX > boxes[offset]
+                    && worldMinY < boxes[offset + 3]
+                    && worldMaxY > boxes[offset + 1]) {
+                outHits[hits++] = i;
             }
         }
+        return hits;
+    }
 
-        return CharacterDirection.NONE;
+    /**
+     * Write the bounds of this hitbox in the game into a packed box array.
+     *
+     * @param boxes Packed bounds as used by {@link #collideAll(float[], int, int[])}
+     * @param index Index of the box to write
+     */
+    public void writeBox(float[] boxes, int index) {
+        float x = collidable.getX();
+        float y = collidable.getY();
+        int offset = index * BOX_STRIDE;
+        boxes[offset] = x + minX;
+        boxes[offset + 1] = y + minY;
+        boxes[offset + 2] = x + maxX;
+        boxes[offset + 3] = y + maxY;
     }
 
     /**
@@ -125,12 +258,4 @@ public class Hitbox {
     public Collidable getCollidable() {
         return collidable;
     }
-
-    private Point getCenter(Point p1, Point p2) {
-        // (p2 - p1) / 2 + p1
-        // move p2 to the center with the help of p1 then half the vector and then move back with p1
-        float cx = (p2.x - p1.x) / 2f + p1.x;
-        float cy = (p2.y - p1.y) / 2f + p2.x;
-        return new Point(cx, cy);
-    }
 }
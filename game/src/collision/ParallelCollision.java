@@ -0,0 +1,92 @@
+package collision;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs collision work on a {@link ForkJoinPool}.
+ *
+ * <p>The work is split into chunks by the caller, usually along tile cells, so every chunk can be
+ * processed independently. Below the threshold the work stays on the calling thread, because
+ * forking costs more than it saves for small populations. The default threshold can be changed
+ * with the system property {@code dungeon.parallelThreshold}.
+ */
+public class ParallelCollision {
+    /** Number of work items from which the work is split up */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelCollision() {
+        this(
+                ForkJoinPool.commonPool(),
+                Integer.getInteger("dungeon.parallelThreshold", DEFAULT_THRESHOLD));
+    }
+
+    /**
+     * @param pool Pool to run the chunks on
+     * @param threshold Number of work items from which the work is split up
+     */
+    public ParallelCollision(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return Number of work items from which the work is split up
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return The number of chunks the work should be split into
+     */
+    public int getChunkCount() {
+        // some more chunks than threads, so threads with cheap chunks can steal others
+        return pool.getParallelism() * 4;
+    }
+
+    /**
+     * @param workItems Number of work items
+     * @return if the work should be split up
+     */
+    public boolean isParallel(int workItems) {
+        return workItems >= threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Process all chunks on the pool and wait until every chunk is done.
+     *
+     * @param chunkCount Number of chunks
+     * @param chunk Processes the chunk with the given index
+     */
+    public void forEachChunk(int chunkCount, IntConsumer chunk) {
+        pool.invoke(new ChunkAction(0, chunkCount, chunk));
+    }
+
+    private static class ChunkAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer chunk;
+
+        ChunkAction(int from, int to, IntConsumer chunk) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunk.accept(from);
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ChunkAction(from, middle, chunk), new ChunkAction(middle, to, chunk));
+            }
+        }
+    }
+}
@@ -15,6 +15,8 @@ public class RectCollidable implements Collidable {
         this.height = height;
         hitbox = new Hitbox((int) width, (int) height);
         hitbox.setCollidable(this);
+        hitbox.setLayer(CollisionLayer.ENVIRONMENT);
+        hitbox.setMask(CollisionLayer.NONE);
     }
 
     public RectCollidable(Point position, int width, int height) {
@@ -23,6 +25,8 @@ public class RectCollidable implements Collidable {
         this.height = height / 16f;
         hitbox = new Hitbox((int) width, (int) height);
         hitbox.setCollidable(this);
+        hitbox.setLayer(CollisionLayer.ENVIRONMENT);
+        hitbox.setMask(CollisionLayer.NONE);
     }
 
     @Override
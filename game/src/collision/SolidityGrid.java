@@ -0,0 +1,320 @@
+package collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import level.elements.tile.Tile;
+
+/**
+ * Compact map of the solid tiles of a level.
+ *
+ * <p>Every row of the level is stored as bits in {@code long} words, one bit per tile. A set bit
+ * marks a tile that is not accessible. Everything outside of the level counts as solid.
+ *
+ * <p>A grid is built on one thread and then {@link #freeze() frozen}. Frozen grids never change and
+ * can be shared with other threads without locking, a change of the terrain builds a new grid.
+ */
+public class SolidityGrid {
+    /**
+     * A rectangle of solid tiles
+     *
+     * @param x x of the bottom left tile
+     * @param y y of the bottom left tile
+     * @param width width in tiles
+     * @param height height in tiles
+     */
+    public record Rect(int x, int y, int width, int height) {}
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private boolean frozen;
+
+    /**
+     * Creates an empty grid, all tiles inside are walkable.
+     *
+     * @param width Width of the level in tiles
+     * @param height Height of the level in tiles
+     */
+    public SolidityGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + 63) >>> 6;
+        bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Creates the grid for the given layout.
+     *
+     * @param layout Layout of the level, indexed [y][x]
+     * @return Frozen grid with all not accessible tiles marked as solid
+     */
+    public static SolidityGrid fromLayout(Tile[][] layout) {
+        SolidityGrid grid = new SolidityGrid(layout[0].length, layout.length);
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (!layout[y][x].isAccessible()) grid.setSolid(x, y);
+            }
+        }
+        return grid.freeze();
+    }
+
+    /**
+     * Mark a tile as solid
+     *
+     * @param x x of the tile
+     * @param y y of the tile
+     * @throws IllegalStateException if the grid is frozen
+     */
+    public void setSolid(int x, int y) {
+        if (frozen) throw new IllegalStateException("the grid is frozen");
+        bits[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * Forbid all further changes, before the grid is shared with other threads.
+     *
+     * @return This grid
+     */
+    public SolidityGrid freeze() {
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * @return if the grid can not be changed anymore
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return Width of the level in tiles
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of the level in tiles
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x x of the tile
+     * @param y y of the tile
+     * @return if the tile is solid, true for tiles outside the level
+     */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return true;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Check if a box overlaps any solid tile.
+     *
+     * <p>Like {@link Hitbox#collide(Hitbox)}, touching a tile at its edge is no overlap.
+     *
+     * @return if the box is blocked by the terrain
+     */
+    public boolean isBlocked(float minX, float minY, float maxX, float maxY) {
+        int fromX = (int) Math.floor(minX);
+        int fromY = (int) Math.floor(minY);
+        int toX = (int) Math.ceil(maxX) - 1;
+        int toY = (int) Math.ceil(maxY) - 1;
+        if (fromX < 0 || fromY < 0 || toX >= width || toY >= height) return true;
+        for (int y = fromY; y <= toY; y++) {
+            if (isRowBlocked(y, fromX, toX)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move a hitbox through the terrain and slide along the walls it hits.
+     *
+     * <p>The displacement is resolved in one pass, first on the x and then on the y axis. Every
+     * tile column (or row) between the start and the end of the movement is checked, so even a
+     * long displacement can not tunnel through a wall. On contact the hitbox stops directly at the
+     * wall and keeps moving on the other axis.
+     *
+     * @param hitbox Hitbox to move
+     * @param x x of the position of the collidable before the movement
+     * @param y y of the position of the collidable before the movement
+     * @param dx Movement on the x axis
+     * @param dy Movement on the y axis
+     * @param result Receives the new position and the contact normal
+     */
+    public void moveAndSlide(
+            Hitbox hitbox, float x, float y, float dx, float dy, SweepResult result) {
+        // on contact the position is snapped to the wall, the local bounds of a hitbox are
+        // multiples of 1/32, so the edge lands exactly on the tile border
+        int normalX = 0;
+        int normalY = 0;
+        float newX = x + dx;
+        int fromY = (int) Math.floor(y + hitbox.getMinY());
+        int toY = (int) Math.ceil(y + hitbox.getMaxY()) - 1;
+        if (dx > 0) {
+            int last = (int) Math.ceil(x + hitbox.getMaxX() + dx) - 1;
+            for (int column = (int) Math.ceil(x + hitbox.getMaxX()); column <= last; column++) {
+                if (isColumnBlocked(column, fromY, toY)) {
+                    newX = column - hitbox.getMaxX();
+                    normalX = -1;
+                    break;
+                }
+            }
+        } else if (dx < 0) {
+            int last = (int) Math.floor(x + hitbox.getMinX() + dx);
+            for (int column = (int) Math.floor(x + hitbox.getMinX()) - 1;
+                    column >= last;
+                    column--) {
+                if (isColumnBlocked(column, fromY, toY)) {
+                    newX = column + 1 - hitbox.getMinX();
+                    normalX = 1;
+                    break;
+                }
+            }
+        }
+
+        float newY = y + dy;
+        int fromX = (int) Math.floor(newX + hitbox.getMinX());
+        int toX = (int) Math.ceil(newX + hitbox.getMaxX()) - 1;
+        if (dy > 0) {
+            int last = (int) Math.ceil(y + hitbox.getMaxY() + dy) - 1;
+            for (int row = (int) Math.ceil(y + hitbox.getMaxY()); row <= last; row++) {
+                if (isRowSolid(row, fromX, toX)) {
+                    newY = row - hitbox.getMaxY();
+                    normalY = -1;
+                    break;
+                }
+            }
+        } else if (dy < 0) {
+            int last = (int) Math.floor(y + hitbox.getMinY() + dy);
+            for (int row = (int) Math.floor(y + hitbox.getMinY()) - 1; row >= last; row--) {
+                if (isRowSolid(row, fromX, toX)) {
+                    newY = row + 1 - hitbox.getMinY();
+                    normalY = 1;
+                    break;
+                }
+            }
+        }
+        result.set(newX, newY, normalX, normalY);
+    }
+
+    private boolean isColumnBlocked(int x, int fromY, int toY) {
+        for (int y = fromY; y <= toY; y++) {
+            if (isSolid(x, y)) return true;
+        }
+        return false;
+    }
+
+    // like isRowBlocked, but everything outside of the level is solid
+    private boolean isRowSolid(int y, int fromX, int toX) {
+        if (y < 0 || y >= height || fromX < 0 || toX >= width) return true;
+        return isRowBlocked(y, fromX, toX);
+    }
+
+    // test the bits fromX to toX of the row with one mask per word
+    private boolean isRowBlocked(int y, int fromX, int toX) {
+        int row = y * wordsPerRow;
+        for (int word = fromX >>> 6; word <= toX >>> 6; word++) {
+            int low = Math.max(fromX, word << 6) & 63;
+            int high = Math.min(toX, (word << 6) + 63) & 63;
+            long mask = (-1L >>> (63 - (high - low))) << low;
+            if ((bits[row + word] & mask) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Walking distances from one tile to all tiles, with steps to the four neighbours.
+     *
+     * @param x x of the start tile
+     * @param y y of the start tile
+     * @return Distance in steps for every tile, indexed y * width + x. -1 for tiles that can not be
+     *     reached
+     */
+    public int[] distancesFrom(int x, int y) {
+        int[] distances = new int[width * height];
+        Arrays.fill(distances, -1);
+        if (isSolid(x, y)) return distances;
+        int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        distances[y * width + x] = 0;
+        queue[tail++] = y * width + x;
+        while (head < tail) {
+            int index = queue[head++];
+            int tileX = index % width;
+            int tileY = index / width;
+            int next = distances[index] + 1;
+            if (tileX > 0 && !isSolid(tileX - 1, tileY) && distances[index - 1] < 0) {
+                distances[index - 1] = next;
+                queue[tail++] = index - 1;
+            }
+            if (tileX < width - 1 && !isSolid(tileX + 1, tileY) && distances[index + 1] < 0) {
+                distances[index + 1] = next;
+                queue[tail++] = index + 1;
+            }
+            if (tileY > 0 && !isSolid(tileX, tileY - 1) && distances[index - width] < 0) {
+                distances[index - width] = next;
+                queue[tail++] = index - width;
+            }
+            if (tileY < height - 1
+                    && !isSolid(tileX, tileY + 1)
+                    && distances[index + width] < 0) {
+                distances[index + width] = next;
+                queue[tail++] = index + width;
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Merge the solid tiles into as few rectangles as possible.
+     *
+     * <p>Greedy: every run of solid tiles in a row is extended upwards as long as the rows above
+     * contain the same run.
+     *
+     * @return Rectangles covering every solid tile exactly once
+     */
+    public List<Rect> mergeRectangles() {
+        List<Rect> rects = new ArrayList<>();
+        long[] open = bits.clone();
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!isOpen(open, x, y)) {
+                    x++;
+                    continue;
+                }
+                int runWidth = 1;
+                while (x + runWidth < width && isOpen(open, x + runWidth, y)) runWidth++;
+                int runHeight = 1;
+                while (y + runHeight < height && isRunOpen(open, x, y + runHeight, runWidth))
+                    runHeight++;
+                for (int dy = 0; dy < runHeight; dy++) {
+                    for (int dx = 0; dx < runWidth; dx++) {
+                        open[(y + dy) * wordsPerRow + ((x + dx) >>> 6)] &= ~(1L << (x + dx));
+                    }
+                }
+                rects.add(new Rect(x, y, runWidth, runHeight));
+                x += runWidth;
+            }
+        }
+        return rects;
+    }
+
+    private boolean isOpen(long[] open, int x, int y) {
+        return (open[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    private boolean isRunOpen(long[] open, int x, int y, int runWidth) {
+        for (int dx = 0; dx < runWidth; dx++) {
+            if (!isOpen(open, x + dx, y)) return false;
+        }
+        return true;
+    }
+}
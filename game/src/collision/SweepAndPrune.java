@@ -0,0 +1,267 @@
+package collision;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Broadphase for moving collidables.
+ *
+ * <p>All collidables are kept sorted by the left edge of their hitbox. Every update the bounds are
+ * refreshed and the order is repaired with an insertion sort, which is almost linear because the
+ * collidables only move a little between two frames. The sweep then only compares collidables
+ * whose hitboxes overlap on the x axis, and rejects pairs with incompatible {@link CollisionLayer}s
+ * before looking at the y axis.
+ *
+ * <p>Collisions are handled in two phases: {@link #detect(ContactBuffer)} only reads the bounds
+ * and writes the contacts into a buffer, {@link #dispatch(ContactBuffer)} calls the {@link
+ * Collidable#colide(Collidable, CharacterDirection)} callbacks afterwards. Callbacks that move a
+ * collidable can therefore not influence the detection of the same frame.
+ */
+public class SweepAndPrune {
+    // every collidable gets an id, free ids are reused
+    private Collidable[] bodies = new Collidable[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+
+    // all following arrays are sorted by minX
+    private int[] ids = new int[16];
+    private float[] minX = new float[16];
+    private float[] minY = new float[16];
+    private float[] maxX = new float[16];
+    private float[] maxY = new float[16];
+    private int[] layer = new int[16];
+    private int[] mask = new int[16];
+    private int count;
+
+    // reused between the frames for the parallel detection
+    private int[] chunkStart = new int[0];
+    private ContactBuffer[] chunkContacts = new ContactBuffer[0];
+
+    /**
+     * Add a collidable to the broadphase
+     *
+     * @param collidable
+     */
+    public void add(Collidable collidable) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == bodies.length) {
+                bodies = Arrays.copyOf(bodies, id * 2);
+                freeIds = Arrays.copyOf(freeIds, id * 2);
+            }
+        }
+        bodies[id] = collidable;
+        if (count == ids.length) grow();
+        ids[count++] = id;
+    }
+
+    /**
+     * Remove a collidable from the broadphase
+     *
+     * @param collidable
+     */
+    public void remove(Collidable collidable) {
+        removeIf(c -> c == collidable);
+    }
+
+    /**
+     * Remove all collidables matching the filter, the order of the others is kept.
+     *
+     * @param filter
+     */
+    public void removeIf(Predicate<Collidable> filter) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            if (filter.test(bodies[id])) {
+                bodies[id] = null;
+                freeIds[freeCount++] = id;
+            } else {
+                ids[kept] = id;
+                minX[kept] = minX[i];
+                minY[kept] = minY[i];
+                maxX[kept] = maxX[i];
+                maxY[kept] = maxY[i];
+                layer[kept] = layer[i];
+                mask[kept] = mask[i];
+                kept++;
+            }
+        }
+        count = kept;
+    }
+
+    /**
+     * @return Number of collidables in the broadphase
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param id Id of a collidable, as stored in a {@link ContactBuffer}
+     * @return The collidable with the given id
+     */
+    public Collidable getCollidable(int id) {
+        return bodies[id];
+    }
+
+    /**
+     * Find all pairs of collidables whose hitboxes overlap and where at least one wants to collide
+     * with the layer of the other.
+     *
+     * <p>No callback is called, the contacts are only written into the buffer.
+     *
+     * @param contacts Receives every contact with the direction from which the first collidable
+     *     consolidates with the second
+     */
+    public void detect(ContactBuffer contacts) {
+        refreshBounds();
+        sort();
+        sweep(0, count, contacts);
+    }
+
+    /**
+     * Like {@link #detect(ContactBuffer)}, but splits the sweep into chunks of whole tile columns
+     * if there are enough collidables.
+     *
+     * <p>Every chunk writes into its own buffer, the buffers are merged into the given one at the
+     * end. After sorting, the result is the same as with the single threaded detection.
+     *
+     * @param contacts Receives every contact
+     * @param parallel Decides if and on which pool the sweep is split up
+     */
+    public void detect(ContactBuffer contacts, ParallelCollision parallel) {
+        if (!parallel.isParallel(count)) {
+            detect(contacts);
+            return;
+        }
+        refreshBounds();
+        sort();
+        int chunks = splitIntoCells(parallel.getChunkCount());
+        for (int chunk = 0; chunk < chunks; chunk++) chunkContacts[chunk].clear();
+        parallel.forEachChunk(
+                chunks,
+                chunk -> sweep(chunkStart[chunk], chunkStart[chunk + 1], chunkContacts[chunk]));
+        for (int chunk = 0; chunk < chunks; chunk++) contacts.addAll(chunkContacts[chunk]);
+    }
+
+    // every collidable from "from" to "to" is compared with the following ones
+    private void sweep(int from, int to, ContactBuffer contacts) {
+        for (int i = from; i < to; i++) {
+            for (int j = i + 1; j < count && minX[j] < maxX[i]; j++) {
+                if (((mask[i] & layer[j]) != 0 || (mask[j] & layer[i]) != 0)
+                        && minY[j] < maxY[i]
+                        && maxY[j] > minY[i]) {
+                    // the centers are compared doubled, halving does not change the direction
+                    contacts.add(
+                            ids[i],
+                            ids[j],
+                            Hitbox.resolveDirection(
+                                    (minX[j] + maxX[j]) - (minX[i] + maxX[i]),
+                                    (minY[j] + maxY[j]) - (minY[i] + maxY[i])));
+                }
+            }
+        }
+    }
+
+    // split the sorted collidables into chunks that only end between two tile columns
+    private int splitIntoCells(int maxChunks) {
+        if (chunkStart.length < maxChunks + 1) {
+            chunkStart = new int[maxChunks + 1];
+            chunkContacts = Arrays.copyOf(chunkContacts, maxChunks);
+        }
+        int chunkSize = Math.max(1, (count + maxChunks - 1) / maxChunks);
+        int chunks = 0;
+        int start = 0;
+        while (start < count && chunks < maxChunks) {
+            int end = Math.min(count, start + chunkSize);
+            while (end < count && (int) Math.floor(minX[end]) == (int) Math.floor(minX[end - 1]))
+                end++;
+            if (chunks == maxChunks - 1) end = count;
+            if (chunkContacts[chunks] == null) chunkContacts[chunks] = new ContactBuffer();
+            chunkStart[chunks++] = start;
+            start = end;
+        }
+        chunkStart[chunks] = count;
+        return chunks;
+    }
+
+    /**
+     * Call the collision callbacks for all contacts.
+     *
+     * <p>Only the side whose mask contains the layer of the other gets the callback. The buffer
+     * should be sorted and deduplicated, so every pair is handled once and in a fixed order.
+     *
+     * @param contacts Contacts found by {@link #detect(ContactBuffer)}
+     */
+    public void dispatch(ContactBuffer contacts) {
+        for (int i = 0; i < contacts.size(); i++) {
+            Collidable a = bodies[contacts.getFirst(i)];
+            Collidable b = bodies[contacts.getSecond(i)];
+            CharacterDirection direction = contacts.getDirection(i);
+            if (a.getHitbox().accepts(b.getHitbox())) a.colide(b, direction.inverse());
+            if (b.getHitbox().accepts(a.getHitbox())) b.colide(a, direction);
+        }
+    }
+
+    private void refreshBounds() {
+        for (int i = 0; i < count; i++) {
+            Collidable collidable = bodies[ids[i]];
+            Hitbox hitbox = collidable.getHitbox();
+            float x = collidable.getX();
+            float y = collidable.getY();
+            minX[i] = x + hitbox.getMinX();
+            minY[i] = y + hitbox.getMinY();
+            maxX[i] = x + hitbox.getMaxX();
+            maxY[i] = y + hitbox.getMaxY();
+            layer[i] = hitbox.getLayer();
+            mask[i] = hitbox.getMask();
+        }
+    }
+
+    // insertion sort, the order of the last frame is almost correct
+    private void sort() {
+        for (int i = 1; i < count; i++) {
+            int keyId = ids[i];
+            float keyMinX = minX[i];
+            float keyMinY = minY[i];
+            float keyMaxX = maxX[i];
+            float keyMaxY = maxY[i];
+            int keyLayer = layer[i];
+            int keyMask = mask[i];
+            int j = i - 1;
+            while (j >= 0 && minX[j] > keyMinX) {
+                ids[j + 1] = ids[j];
+                minX[j + 1] = minX[j];
+                minY[j + 1] = minY[j];
+                maxX[j + 1] = maxX[j];
+                maxY[j + 1] = maxY[j];
+                layer[j + 1] = layer[j];
+                mask[j + 1] = mask[j];
+                j--;
+            }
+            ids[j + 1] = keyId;
+            minX[j + 1] = keyMinX;
+            minY[j + 1] = keyMinY;
+            maxX[j + 1] = keyMaxX;
+            maxY[j + 1] = keyMaxY;
+            layer[j + 1] = keyLayer;
+            mask[j + 1] = keyMask;
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        layer = Arrays.copyOf(layer, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+    }
+}
@@ -0,0 +1,58 @@
+package collision;
+
+/**
+ * Result of a movement resolved against the terrain by {@link SolidityGrid#moveAndSlide(Hitbox,
+ * float, float, float, float, SweepResult)}.
+ *
+ * <p>The object is meant to be reused, so moving does not create any objects.
+ */
+public class SweepResult {
+    private float x;
+    private float y;
+    private int normalX;
+    private int normalY;
+
+    void set(float x, float y, int normalX, int normalY) {
+        this.x = x;
+        this.y = y;
+        this.normalX = normalX;
+        this.normalY = normalY;
+    }
+
+    /**
+     * @return x of the position after the movement
+     */
+    public float getX() {
+        return x;
+    }
+
+    /**
+     * @return y of the position after the movement
+     */
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * @return x of the contact normal: 1 if a wall on the left stopped the movement, -1 for a wall
+     *     on the right, 0 if nothing stopped the movement on the x axis
+     */
+    public int getNormalX() {
+        return normalX;
+    }
+
+    /**
+     * @return y of the contact normal: 1 if a wall below stopped the movement, -1 for a wall above,
+     *     0 if nothing stopped the movement on the y axis
+     */
+    public int getNormalY() {
+        return normalY;
+    }
+
+    /**
+     * @return if the terrain stopped the movement on any axis
+     */
+    public boolean isHit() {
+        return normalX != 0 || normalY != 0;
+    }
+}
@@ -0,0 +1,110 @@
+package headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import metrics.MetricsRegistry;
+import mydungeon.Starter;
+import simulation.SimulationClock;
+
+/**
+ * Runs the game without a window, LWJGL or a graphics card.
+ *
+ * <p>The headless backend of libGDX drives {@link Starter} like the desktop launcher does: levels,
+ * the DSL, quests, monsters and collision run as usual, but OpenGL is replaced by {@link NoOpGL}
+ * and the keyboard by a {@link ScriptedInput}. Every frame simulates several ticks, so the game
+ * runs as fast as the simulation allows. Used for soak tests, benchmarks and simulations on
+ * servers.
+ *
+ * <p>Start with {@code gradlew runHeadless --args="TICKS [SCRIPT]"}, for example {@code
+ * --args="10000 D:0-300,SPACE:100-120"}.
+ */
+public final class HeadlessLauncher extends ApplicationAdapter {
+    /** Ticks simulated per frame, below the catch-up limit of the clock */
+    public static final int TICKS_PER_FRAME = SimulationClock.DEFAULT_MAX_TICKS_PER_FRAME - 1;
+
+    private static final String LOG_TAG = "HeadlessLauncher";
+
+    private final Starter game;
+    private final ScriptedInput input;
+    private final long ticks;
+    private long startNanos;
+
+    /**
+     * @param game Game to run
+     * @param ticks Number of ticks to simulate before the application exits
+     * @param input Keys the player presses
+     */
+    public HeadlessLauncher(Starter game, long ticks, ScriptedInput input) {
+        this.game = game;
+        this.ticks = ticks;
+        this.input = input;
+    }
+
+    /**
+     * Run the game until the given number of ticks is simulated.
+     *
+     * @param game Game to run
+     * @param ticks Number of ticks to simulate
+     * @param input Keys the player presses
+     */
+    public static void run(Starter game, long ticks, ScriptedInput input) {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // no frame limit
+        config.updatesPerSecond = 0;
+        new HeadlessApplication(new HeadlessLauncher(game, ticks, input), config);
+    }
+
+    @Override
+    public void create() {
+        GL20 gl = NoOpGL.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.input = input.asInput();
+        Starter.renderHitboxen = false;
+        game.setSpriteBatch(new SpriteBatch());
+        game.show();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        SimulationClock clock = game.getClock();
+        if (clock.getTicks() >= ticks) {
+            Gdx.app.exit();
+            return;
+        }
+        input.setTick(clock.getTicks());
+        game.render(TICKS_PER_FRAME * clock.getTickSeconds());
+    }
+
+    @Override
+    public void dispose() {
+        SimulationClock clock = game.getClock();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        // through the logger of the application, like all other output of libGDX
+        Gdx.app.log(
+                LOG_TAG,
+                String.format(
+                        "%d ticks in %.2f s, %.0f ticks per second, %d dropped",
+                        clock.getTicks(),
+                        seconds,
+                        clock.getTicks() / seconds,
+                        clock.getDroppedTicks()));
+        if (MetricsRegistry.isEnabled())
+            Gdx.app.log(LOG_TAG, MetricsRegistry.getInstance().report());
+        game.dispose();
+    }
+
+    /**
+     * @param args Number of ticks, optionally followed by the input script
+     */
+    public static void main(String[] args) {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10000;
+        ScriptedInput input = ScriptedInput.parse(args.length > 1 ? args[1] : "");
+        run(new Starter(), ticks, input);
+    }
+}
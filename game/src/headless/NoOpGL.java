@@ -0,0 +1,65 @@
+package headless;
+
+import com.badlogic.gdx.graphics.GL20;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * OpenGL that draws nothing, so textures, shaders and sprite batches can be created without a
+ * window.
+ *
+ * <p>Every call returns the default value of its return type, with three exceptions: shaders
+ * always compile and link, every created object gets a new handle, and strings are empty instead of
+ * null.
+ */
+final class NoOpGL implements InvocationHandler {
+    private int nextHandle = 1;
+
+    private NoOpGL() {}
+
+    /**
+     * @return A new no-op implementation of {@link GL20}
+     */
+    static GL20 create() {
+        return (GL20)
+                Proxy.newProxyInstance(
+                        GL20.class.getClassLoader(), new Class<?>[] {GL20.class}, new NoOpGL());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "glGetShaderiv", "glGetProgramiv" -> {
+                int parameter = (int) args[1];
+                if (parameter == GL20.GL_COMPILE_STATUS || parameter == GL20.GL_LINK_STATUS)
+                    ((IntBuffer) args[2]).put(0, GL20.GL_TRUE);
+                return null;
+            }
+            case "toString" -> {
+                return "NoOpGL";
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+        }
+        if (name.startsWith("glGen") || name.startsWith("glCreate")) {
+            if (method.getReturnType() == int.class) return nextHandle++;
+        }
+        return defaultValue(method.getReturnType());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == String.class) return "";
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package headless;
+
+import com.badlogic.gdx.Input;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyboard input that follows a script instead of a player.
+ *
+ * <p>A script is a comma separated list of {@code KEY:FROM-TO} entries, the key is held from tick
+ * FROM up to, but not including, tick TO. Keys are named like in {@link
+ * Input.Keys#valueOf(String)}, for example {@code "W:0-60,D:60-120,SPACE:90-100"}. Everything but
+ * the keyboard state is a no-op.
+ */
+public final class ScriptedInput implements InvocationHandler {
+    private record KeyPress(int key, long from, long to) {}
+
+    private final List<KeyPress> presses = new ArrayList<>();
+    private long tick;
+
+    /**
+     * @param script Keys to press, see the class description
+     * @return The parsed script
+     * @throws IllegalArgumentException if an entry can not be parsed
+     */
+    public static ScriptedInput parse(String script) {
+        ScriptedInput input = new ScriptedInput();
+        if (script == null || script.isBlank()) return input;
+        for (String entry : script.split(",")) {
+            String[] keyAndTicks = entry.trim().split(":");
+            String[] ticks = keyAndTicks.length == 2 ? keyAndTicks[1].split("-") : new String[0];
+            int key = Input.Keys.valueOf(keyAndTicks[0]);
+            if (ticks.length != 2 || key == -1)
+                throw new IllegalArgumentException("invalid key press: " + entry);
+            input.press(key, Long.parseLong(ticks[0]), Long.parseLong(ticks[1]));
+        }
+        return input;
+    }
+
+    /**
+     * Hold a key for some ticks
+     *
+     * @param key Key code, see {@link Input.Keys}
+     * @param from First tick the key is held
+     * @param to Tick the key is released
+     */
+    public void press(int key, long from, long to) {
+        presses.add(new KeyPress(key, from, to));
+    }
+
+    /**
+     * @param tick The current tick of the simulation
+     */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * @param key Key code, {@link Input.Keys#ANY_KEY} for any key
+     * @return if the key is held in the current tick
+     */
+    public boolean isKeyPressed(int key) {
+        for (KeyPress press : presses) {
+            if ((key == Input.Keys.ANY_KEY || press.key == key)
+                    && tick >= press.from
+                    && tick < press.to) return true;
+        }
+        return false;
+    }
+
+    private boolean isKeyJustPressed(int key) {
+        for (KeyPress press : presses) {
+            if ((key == Input.Keys.ANY_KEY || press.key == key) && tick == press.from) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return This script as {@link Input}, to be set as {@code Gdx.input}
+     */
+    public Input asInput() {
+        return (Input)
+                Proxy.newProxyInstance(
+                        Input.class.getClassLoader(), new Class<?>[] {Input.class}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "isKeyPressed" -> {
+                return isKeyPressed((int) args[0]);
+            }
+            case "isKeyJustPressed" -> {
+                return isKeyJustPressed((int) args[0]);
+            }
+            case "toString" -> {
+                return "ScriptedInput";
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}
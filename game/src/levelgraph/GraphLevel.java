@@ -7,6 +7,7 @@ import level.tools.Coordinate;
 import level.tools.DesignLabel;
 import level.tools.LevelSize;
 import room.IRoom;
+import room.Room;
 import room.RoomGenerator;
 
 /**
@@ -30,6 +31,7 @@ public class GraphLevel {
         generator = new RoomGenerator();
         createRooms(root, new LinkedHashSet());
         findDoors(root, new LinkedHashSet());
+        precomputeDistances(root, new LinkedHashSet());
     }
 
     // Visit all Nodes and create a room for each of them
@@ -40,6 +42,14 @@ public class GraphLevel {
         for (LevelNode neighbour : node.getNeighbours()) createRooms(neighbour, visited);
     }
 
+    // Start computing the distances between the doors of every room in the background
+    private void precomputeDistances(LevelNode node, LinkedHashSet<LevelNode> visited) {
+        if (node == null || visited.contains(node)) return;
+        visited.add(node);
+        if (node.getRoom() instanceof Room room) room.precomputeDoorDistances();
+        for (LevelNode neighbour : node.getNeighbours()) precomputeDistances(neighbour, visited);
+    }
+
     // Add the connection between the doors
     private void findDoors(LevelNode node, LinkedHashSet<LevelNode> visited) {
         if (node == null || visited.contains(node)) return;
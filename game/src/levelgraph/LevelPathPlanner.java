@@ -0,0 +1,159 @@
+package levelgraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import level.elements.ILevel;
+import level.elements.tile.DoorTile;
+import level.elements.tile.Tile;
+import level.tools.Coordinate;
+import metrics.PathfindingMetrics;
+import room.DoorDistances;
+import room.Room;
+
+/**
+ * Plans paths across the rooms of a {@link GraphLevel}, similar to HPA*.
+ *
+ * <p>The doors are the nodes of a small abstract graph. Two doors of the same room are connected
+ * by their walking distance inside the room ({@link Room#getDoorDistances()}), every door is
+ * connected to the door on the other side of its {@link LevelNode} edge. A Dijkstra search on this
+ * graph finds the doors to walk through. The tiles are only searched inside the room a character
+ * is currently walking through, on the way to {@link LevelPath#getNextTarget(ILevel, Tile)}.
+ */
+public class LevelPathPlanner {
+    // stepping from the doorstep onto the door and out onto the doorstep of the other door
+    private static final int DOOR_CROSSING_COST = 2;
+
+    /**
+     * A planned path across rooms
+     *
+     * @param doors Doors to walk through, in this order. Empty if the goal is in the start room and
+     *     no way through other rooms is shorter
+     * @param cost Number of steps from the start to the goal
+     */
+    public record LevelPath(List<DoorTile> doors, int cost) {
+        /**
+         * @param room Room the character is in
+         * @param goal Goal of the path
+         * @return The tile to walk to in the given room: the next door of the path or the goal
+         */
+        public Tile getNextTarget(ILevel room, Tile goal) {
+            for (DoorTile door : doors) {
+                if (door.getLevel() == room) return door;
+            }
+            return goal;
+        }
+    }
+
+    private record Entry(DoorTile door, int cost) {}
+
+    /**
+     * Plan a path from a tile in one room to a tile in another (or the same) room.
+     *
+     * @param startRoom Room of the start
+     * @param start Start tile in the start room
+     * @param goalRoom Room of the goal
+     * @param goal Goal tile in the goal room
+     * @return The planned path, null if the goal can not be reached
+     */
+    public LevelPath plan(Room startRoom, Coordinate start, Room goalRoom, Coordinate goal) {
+        long searchStart = PathfindingMetrics.startSearch();
+        int expanded = 0;
+        int[] fromStart = distancesFrom(startRoom, start);
+        int[] toGoal = distancesFrom(goalRoom, goal);
+        int startWidth = startRoom.getCollisionMap().getSolidityGrid().getWidth();
+        int goalWidth = goalRoom.getCollisionMap().getSolidityGrid().getWidth();
+
+        // staying in the room
+        int bestCost = Integer.MAX_VALUE;
+        DoorTile bestLastDoor = null;
+        if (startRoom == goalRoom) {
+            int direct = fromStart[goal.y * startWidth + goal.x];
+            if (direct >= 0) bestCost = direct;
+        }
+
+        // a node is the doorstep of a door, previous is the node it was reached from
+        IdentityHashMap<DoorTile, Integer> costs = new IdentityHashMap<>();
+        IdentityHashMap<DoorTile, DoorTile> previous = new IdentityHashMap<>();
+        PriorityQueue<Entry> open = new PriorityQueue<>((a, b) -> Integer.compare(a.cost, b.cost));
+        DoorDistances startDoors = startRoom.getDoorDistances();
+        for (DoorTile door : startDoors.getDoors()) {
+            int cost = distanceTo(fromStart, door.getDoorstep(), startWidth);
+            if (cost >= 0) relax(door, null, cost, costs, previous, open);
+        }
+
+        while (!open.isEmpty()) {
+            Entry entry = open.poll();
+            if (entry.cost >= bestCost) break;
+            if (entry.cost > costs.get(entry.door)) continue;
+            expanded++;
+            DoorTile door = entry.door;
+            Room room = (Room) door.getLevel();
+
+            if (room == goalRoom) {
+                int rest = distanceTo(toGoal, door.getDoorstep(), goalWidth);
+                if (rest >= 0 && entry.cost + rest < bestCost) {
+                    bestCost = entry.cost + rest;
+                    bestLastDoor = door;
+                }
+            }
+
+            DoorTile otherDoor = door.getOtherDoor();
+            if (otherDoor != null)
+                relax(otherDoor, door, entry.cost + DOOR_CROSSING_COST, costs, previous, open);
+
+            DoorDistances distances = room.getDoorDistances();
+            int from = distances.indexOf(door);
+            for (int to = 0; to < distances.getDoors().length; to++) {
+                int distance = distances.getDistance(from, to);
+                if (to != from && distance != DoorDistances.UNREACHABLE) {
+                    relax(
+                            distances.getDoors()[to],
+                            door,
+                            entry.cost + distance,
+                            costs,
+                            previous,
+                            open);
+                }
+            }
+        }
+
+        PathfindingMetrics.recordSearch(
+                "level", searchStart, expanded, bestCost != Integer.MAX_VALUE);
+        if (bestCost == Integer.MAX_VALUE) return null;
+        // the doors walked through are the ones followed by their other door
+        List<DoorTile> doors = new ArrayList<>();
+        for (DoorTile door = bestLastDoor; door != null; door = previous.get(door)) {
+            DoorTile before = previous.get(door);
+            if (before != null && before.getOtherDoor() == door) doors.add(before);
+        }
+        Collections.reverse(doors);
+        return new LevelPath(doors, bestCost);
+    }
+
+    private static void relax(
+            DoorTile door,
+            DoorTile from,
+            int cost,
+            IdentityHashMap<DoorTile, Integer> costs,
+            IdentityHashMap<DoorTile, DoorTile> previous,
+            PriorityQueue<Entry> open) {
+        Integer known = costs.get(door);
+        if (known != null && known <= cost) return;
+        costs.put(door, cost);
+        previous.put(door, from);
+        open.add(new Entry(door, cost));
+    }
+
+    private static int[] distancesFrom(Room room, Coordinate tile) {
+        return room.getCollisionMap().getSolidityGrid().distancesFrom(tile.x, tile.y);
+    }
+
+    private static int distanceTo(int[] distances, Tile tile, int width) {
+        if (tile == null) return -1;
+        Coordinate c = tile.getCoordinate();
+        return distances[c.y * width + c.x];
+    }
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** JFR event with the AI work of one frame. */
+@Name("dungeon.AiFrame")
+@Label("AI Frame")
+@Category({"Dungeon", "AI"})
+public class AiFrameEvent extends Event {
+    @Label("Path Searches")
+    public long searches;
+
+    @Label("AI Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long aiNanos;
+}
@@ -0,0 +1,32 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A counter that can be increased from many threads. */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    /** Increase the counter by one */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @param amount Amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return The current value
+     */
+    public long get() {
+        return value.sum();
+    }
+
+    /** Set the counter back to zero */
+    public void reset() {
+        value.reset();
+    }
+}
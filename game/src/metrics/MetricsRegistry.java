@@ -0,0 +1,99 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named counters and timers of the game.
+ *
+ * <p>Recording is switched off by default, code on hot paths checks {@link #isEnabled()} before
+ * taking any time, so disabled metrics cost one field read. Start the game with {@code
+ * -Ddungeon.metrics=true} or call {@link #setEnabled(boolean)} to switch them on.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private static volatile boolean enabled = Boolean.getBoolean("dungeon.metrics");
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    /**
+     * @return The registry of the game
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return if metrics should be recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled if metrics should be recorded
+     */
+    public static void setEnabled(boolean enabled) {
+        MetricsRegistry.enabled = enabled;
+    }
+
+    /**
+     * @param name Name of the counter
+     * @return The counter with the given name, created if it does not exist
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name Name of the timer
+     * @return The timer with the given name, created if it does not exist
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * @return All counters by name
+     */
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * @return All timers by name
+     */
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /** Set all counters and timers back to zero */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+    }
+
+    /**
+     * @return All values as readable text, one metric per line
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            report.append(counter.getKey()).append(": ").append(counter.getValue().get());
+            report.append('\n');
+        }
+        for (Map.Entry<String, Timer> timer : new TreeMap<>(timers).entrySet()) {
+            Timer t = timer.getValue();
+            report.append(
+                    String.format(
+                            "%s: count=%d mean=%.0f p99=%d%n",
+                            timer.getKey(), t.getCount(), t.getMean(), t.getPercentile(99)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one path search. */
+@Name("dungeon.PathSearch")
+@Label("Path Search")
+@Category({"Dungeon", "AI"})
+public class PathSearchEvent extends Event {
+    @Label("Planner")
+    public String planner;
+
+    @Label("Expanded Nodes")
+    public int expandedNodes;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,106 @@
+package metrics;
+
+/**
+ * Metrics of the path finding and the monster AI.
+ *
+ * <p>Every method returns immediately if the metrics are disabled. Searches can be recorded from
+ * worker threads, {@link #endFrame()} is called once per frame on the game thread.
+ */
+public final class PathfindingMetrics {
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getInstance();
+
+    /** Number of path searches */
+    public static final Counter SEARCHES = REGISTRY.counter("path.searches");
+    /** Number of searches that found no path */
+    public static final Counter FAILED = REGISTRY.counter("path.failed");
+    /** Nodes expanded by all searches */
+    public static final Counter EXPANDED = REGISTRY.counter("path.expandedNodes");
+    /** Path queries answered by a cached path or flow field */
+    public static final Counter CACHE_HITS = REGISTRY.counter("path.cacheHits");
+    /** Path queries that needed a new search */
+    public static final Counter CACHE_MISSES = REGISTRY.counter("path.cacheMisses");
+    /** Duration of single searches */
+    public static final Timer SEARCH_TIME = REGISTRY.timer("path.searchTime");
+    /** Searches per frame, the timer is used as a histogram of counts */
+    public static final Timer SEARCHES_PER_FRAME = REGISTRY.timer("path.searchesPerFrame");
+    /** Time per frame spent in the monster AI */
+    public static final Timer AI_TIME_PER_FRAME = REGISTRY.timer("ai.timePerFrame");
+
+    private static final Counter AI_TIME = REGISTRY.counter("ai.time");
+
+    private static long searchesAtFrameStart;
+    private static long aiTimeAtFrameStart;
+
+    private PathfindingMetrics() {}
+
+    /**
+     * @return Start time for {@link #recordSearch}, 0 if the metrics are disabled
+     */
+    public static long startSearch() {
+        return MetricsRegistry.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @param planner Name of the planner
+     * @param start Value of {@link #startSearch()}
+     * @param expandedNodes Nodes expanded by the search
+     * @param found if a path was found
+     */
+    public static void recordSearch(String planner, long start, int expandedNodes, boolean found) {
+        if (!MetricsRegistry.isEnabled() || start == 0) return;
+        long nanos = System.nanoTime() - start;
+        SEARCHES.increment();
+        EXPANDED.add(expandedNodes);
+        if (!found) FAILED.increment();
+        SEARCH_TIME.record(nanos);
+        PathSearchEvent event = new PathSearchEvent();
+        if (event.isEnabled()) {
+            event.planner = planner;
+            event.expandedNodes = expandedNodes;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param hit if a cached path could be used
+     */
+    public static void recordCacheLookup(boolean hit) {
+        if (!MetricsRegistry.isEnabled()) return;
+        if (hit) CACHE_HITS.increment();
+        else CACHE_MISSES.increment();
+    }
+
+    /**
+     * @param nanos Time spent in the AI of one monster
+     */
+    public static void recordAiTime(long nanos) {
+        AI_TIME.add(nanos);
+    }
+
+    /**
+     * @return Cached path queries divided by all path queries, 0 if there were none
+     */
+    public static double getCacheHitRate() {
+        long hits = CACHE_HITS.get();
+        long all = hits + CACHE_MISSES.get();
+        return all == 0 ? 0 : (double) hits / all;
+    }
+
+    /** Record the searches and AI time of the frame that ends now. */
+    public static void endFrame() {
+        if (!MetricsRegistry.isEnabled()) return;
+        long searches = SEARCHES.get();
+        long aiTime = AI_TIME.get();
+        SEARCHES_PER_FRAME.record(searches - searchesAtFrameStart);
+        AI_TIME_PER_FRAME.record(aiTime - aiTimeAtFrameStart);
+        AiFrameEvent event = new AiFrameEvent();
+        if (event.isEnabled()) {
+            event.searches = searches - searchesAtFrameStart;
+            event.aiNanos = aiTime - aiTimeAtFrameStart;
+            event.commit();
+        }
+        searchesAtFrameStart = searches;
+        aiTimeAtFrameStart = aiTime;
+    }
+}
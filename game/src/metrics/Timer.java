@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records durations from many threads and reports their mean and percentiles.
+ *
+ * <p>The durations are counted in logarithmic buckets with eight sub buckets per power of two, so
+ * a percentile is exact to about 12 percent, using a fixed amount of memory.
+ */
+public class Timer {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param nanos Duration to record
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        total.add(nanos);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // smallest value of a bucket
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return Number of recorded durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Mean of the recorded durations in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100, e.g. 99
+     * @return Lower bound of the bucket that contains the percentile in nanoseconds, 0 if nothing
+     *     was recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += buckets.get(i);
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(percentile / 100 * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(1, rank)) return lowerBound(i);
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+
+    /** Forget all recorded durations */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        count.reset();
+        total.reset();
+    }
+}
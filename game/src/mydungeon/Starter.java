@@ -2,15 +2,22 @@ package mydungeon;
 
 import basiselements.DungeonElement;
 import basiselements.hud.ScreenText;
+import character.EntityStore;
+import character.Steering;
+import character.TickScheduler;
+import character.monster.AiScheduler;
 import character.monster.Imp;
 import character.monster.Monster;
 import character.objects.*;
 import character.player.Hero;
 import character.skills.BaseSkillEffect;
-import collision.CharacterDirection;
 import collision.Collidable;
 import collision.CollisionMap;
+import collision.ContactBuffer;
+import collision.EntityGrid;
 import collision.Hitbox;
+import collision.ParallelCollision;
+import collision.SweepAndPrune;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import controller.Game;
@@ -25,9 +32,12 @@ import level.elements.ILevel;
 import level.elements.tile.DoorTile;
 import level.elements.tile.Tile;
 import level.tools.LevelElement;
+import metrics.PathfindingMetrics;
 import quest.Quest;
 import quest.QuestFactory;
+import room.PathService;
 import room.Room;
+import simulation.SimulationClock;
 import starter.DesktopLauncher;
 import tools.Point;
 
@@ -38,13 +48,28 @@ import tools.Point;
  * com.badlogic.gdx.Game}.
  */
 public class Starter extends Game {
+    // monsters nearer to the hero than this chase it
+    private static final float CHASE_RANGE = 6;
+
     private Hero hero;
+    // the monsters of the room the hero is in
     private List<Monster> monster;
+    // monsters in other rooms, they wait until the hero enters their room
+    private List<Monster> suspendedMonster;
     private List<BaseSkillEffect> skillEffects;
     private List<TreasureChest> chests;
     private ScreenController sc;
     private CollisionMap clevel;
-    private List<PasswordChest> pwChest;
+    private SweepAndPrune entityCollision;
+    private ContactBuffer contacts;
+    private ParallelCollision parallelCollision;
+    private PathService pathService;
+    private AiScheduler aiScheduler;
+    private EntityGrid monsterGrid;
+    private Steering steering;
+    private TickScheduler tickScheduler;
+    private final SimulationClock clock = new SimulationClock();
+    private int pendingTicks;
     private ShapeRenderer shape;
     public static boolean renderHitboxen = true;
     public static Starter Game;
@@ -59,12 +84,21 @@ public class Starter extends Game {
         dslInterpreter = new DSLInterpreter();
         QuestConfig config = loadConfig();
 
-        clevel = new CollisionMap();
+        entityCollision = new SweepAndPrune();
+        contacts = new ContactBuffer();
+        parallelCollision = new ParallelCollision();
+        pathService = new PathService();
+        aiScheduler = new AiScheduler();
+        monsterGrid = new EntityGrid();
+        steering = new Steering(monsterGrid);
+        tickScheduler = new TickScheduler(parallelCollision);
         monster = new ArrayList<>();
+        suspendedMonster = new ArrayList<>();
         skillEffects = new ArrayList<>();
-        pwChest = new ArrayList<>();
         chests = new ArrayList<>();
         hero = new Hero();
+        hero.setClockDriven(true);
+        entityCollision.add(hero);
         sc = new ScreenController(batch);
         controller.add(sc);
 
@@ -88,6 +122,35 @@ public class Starter extends Game {
 
     @Override
     protected void frame() {
+        PathfindingMetrics.endFrame();
+        EntityStore store = EntityStore.getInstance();
+        // the ticks work on the simulated positions
+        store.setInterpolation(1);
+        for (int i = 0; i < pendingTicks; i++) tick();
+        pendingTicks = 0;
+        // the characters are drawn between their last two positions
+        store.setInterpolation(clock.getAlpha());
+    }
+
+    // one step of the simulation, the speeds and lifetimes are counted in ticks
+    private void tick() {
+        EntityStore store = EntityStore.getInstance();
+        store.savePositions();
+        store.clearFlag(EntityStore.MOVED);
+        // paths planned since the last tick
+        pathService.beginFrame();
+        aiScheduler.beginFrame(levelAPI.getCurrentLevel(), hero.getX(), hero.getY());
+        monsterGrid.build(
+                monster, clevel.getSolidityGrid().getWidth(), clevel.getSolidityGrid().getHeight());
+        // the hero reads the input and spawns skills, it stays on the game thread
+        hero.tick();
+        // the shared caches of the room are built before the monsters read them in parallel
+        if (levelAPI.getCurrentLevel() instanceof Room room) room.getComponents();
+        tickScheduler.update(monster, monsterGrid);
+        // monsters that walked through a door are not drawn and checked in this room anymore
+        monster.removeIf(this::suspendIfInOtherRoom);
+        for (BaseSkillEffect effect : skillEffects) effect.tick();
+
         Tile currentTile = levelAPI.getCurrentLevel().getTileAtEntity(hero);
         if (currentTile.getLevelElement() == LevelElement.EXIT) levelAPI.loadLevel();
         else if (currentTile.getLevelElement() == LevelElement.DOOR) {
@@ -98,37 +161,36 @@ public class Starter extends Game {
     }
 
     private void checkForCollision() {
-        for (Monster m : monster) {
-            CharacterDirection direction = hero.getHitbox().collide(m.getHitbox());
-            if (direction != CharacterDirection.NONE) {
-                hero.colide(m, direction.inverse());
-                m.colide(hero, direction);
-            }
-        }
-        for (BaseSkillEffect skillEffect : skillEffects) {
-            if (!skillEffect.removable()) {
-                for (Monster m : monster) {
-                    CharacterDirection direction = skillEffect.getHitbox().collide(m.getHitbox());
-                    if (direction != CharacterDirection.NONE) {
-                        skillEffect.colide(m, direction);
-                        m.colide(skillEffect, direction);
-                    }
-                }
-            }
-        }
-        CharacterDirection direction;
-        for (PasswordChest p : pwChest) {
-            direction = hero.getHitbox().collide(p.getHitbox());
-            hero.colide(p, direction);
-            p.colide(hero, direction);
-        }
-        for (TreasureChest t : chests) {
-            direction = hero.getHitbox().collide(t.getHitbox());
-            if (direction != CharacterDirection.NONE) {
-                hero.colide(t, direction);
-                t.colide(hero, direction);
-            }
-        }
+        monster.removeIf(Starter::releaseIfRemovable);
+        skillEffects.removeIf(BaseSkillEffect::removable);
+        entityCollision.removeIf(c -> c != hero && ((DungeonElement) c).removable());
+        // find all contacts first, callbacks like knockback would move entities mid-detection
+        contacts.clear();
+        entityCollision.detect(contacts, parallelCollision);
+        contacts.sortAndDeduplicate();
+        entityCollision.dispatch(contacts);
+    }
+
+    private boolean suspendIfInOtherRoom(Monster m) {
+        if (m.getLevel() == levelAPI.getCurrentLevel()) return false;
+        entityController.remove(m);
+        entityCollision.remove(m);
+        suspendedMonster.add(m);
+        return true;
+    }
+
+    private boolean resumeIfInCurrentRoom(Monster m) {
+        if (m.getLevel() != levelAPI.getCurrentLevel()) return false;
+        monster.add(m);
+        entityController.add(m);
+        entityCollision.add(m);
+        return true;
+    }
+
+    private static boolean releaseIfRemovable(Monster monster) {
+        if (!monster.removable()) return false;
+        monster.release();
+        return true;
     }
 
     @Override
@@ -137,26 +199,41 @@ public class Starter extends Game {
         hero.setLevel(level);
         quest.onLevelLoad(level, entityController);
         chests.forEach(t -> entityController.remove(t));
+        chests.forEach(t -> entityCollision.remove(t));
         chests.clear();
         for (DungeonElement element : ((Room) level).getElements()) {
             if (element instanceof TreasureChest) {
                 chests.add((TreasureChest) element);
+                entityCollision.add((TreasureChest) element);
             }
             entityController.add(element);
         }
-        clevel.regenHitboxen(level);
+        // every room keeps its collision map, walking through a door only swaps the reference
+        clevel = ((Room) level).getCollisionMap();
+        // the monsters stay in the room the hero left, the ones of the new room join
+        monster.removeIf(this::suspendIfInOtherRoom);
+        suspendedMonster.removeIf(this::resumeIfInCurrentRoom);
     }
 
     void spawnMonster() {
         monster.forEach(m -> entityController.remove(m));
+        monster.forEach(m -> entityCollision.remove(m));
+        monster.forEach(Monster::release);
         monster.clear();
+        suspendedMonster.forEach(Monster::release);
+        suspendedMonster.clear();
         for (int i = 0; i < 10; i++) {
             Monster m = new Imp();
             m.setLevel(levelAPI.getCurrentLevel());
-            m.setCLevel(clevel);
+            m.setPathService(pathService);
+            m.setAiScheduler(aiScheduler);
+            m.setSteering(steering);
+            m.setChaseTarget(hero, CHASE_RANGE);
+            m.setClockDriven(true);
             m.getHitbox().setCollidable(m);
             monster.add(m);
             entityController.add(m);
+            entityCollision.add(m);
         }
     }
 
@@ -177,13 +254,23 @@ public class Starter extends Game {
         return ret;
     }
 
+    /**
+     * @return Clock of the simulation, decides how many ticks run per frame
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
     public void spawnEffect(BaseSkillEffect effect) {
+        effect.setClockDriven(true);
         skillEffects.add(effect);
         entityController.add(effect);
+        entityCollision.add(effect);
     }
 
     @Override
     public void render(float delta) {
+        pendingTicks += clock.advance(delta);
         super.render(delta);
         if (renderHitboxen) {
             renderHitboxes();
@@ -197,46 +284,27 @@ public class Starter extends Game {
         shape.setProjectionMatrix(camera.combined);
         shape.setColor(Color.RED);
         for (Collidable box : clevel.getCollidables()) {
-            Point bottomLeft = box.getHitbox().getCorners()[Hitbox.CORNER_BOTTOM_LEFT];
-            Point topRight = box.getHitbox().getCorners()[Hitbox.CORNER_TOP_RIGHT];
-
-            shape.rect(
-                    -0.85f + box.getPosition().x + bottomLeft.x,
-                    -0.5f + box.getPosition().y + bottomLeft.y,
-                    topRight.x - bottomLeft.x,
-                    topRight.y - bottomLeft.y);
+            renderHitbox(box);
         }
         for (Collidable box : monster) {
-            Point bottomLeft = box.getHitbox().getCorners()[Hitbox.CORNER_BOTTOM_LEFT];
-            Point topRight = box.getHitbox().getCorners()[Hitbox.CORNER_TOP_RIGHT];
-
-            shape.rect(
-                    -0.85f + box.getPosition().x + bottomLeft.x,
-                    -0.5f + box.getPosition().y + bottomLeft.y,
-                    topRight.x - bottomLeft.x,
-                    topRight.y - bottomLeft.y);
+            renderHitbox(box);
         }
         skillEffects.removeIf(BaseSkillEffect::removable);
         for (Collidable box : skillEffects) {
-            Point bottomLeft = box.getHitbox().getCorners()[Hitbox.CORNER_BOTTOM_LEFT];
-            Point topRight = box.getHitbox().getCorners()[Hitbox.CORNER_TOP_RIGHT];
-
-            shape.rect(
-                    -0.85f + box.getPosition().x + bottomLeft.x,
-                    -0.5f + box.getPosition().y + bottomLeft.y,
-                    topRight.x - bottomLeft.x,
-                    topRight.y - bottomLeft.y);
+            renderHitbox(box);
         }
-        Hitbox box = hero.getHitbox();
-        Point bottomLeft = box.getCorners()[Hitbox.CORNER_BOTTOM_LEFT];
-        Point topRight = box.getCorners()[Hitbox.CORNER_TOP_RIGHT];
+        renderHitbox(hero);
+        shape.end();
+    }
 
+    private void renderHitbox(Collidable collidable) {
+        Hitbox box = collidable.getHitbox();
+        Point position = collidable.getPosition();
         shape.rect(
-                -0.85f + hero.getPosition().x + bottomLeft.x,
-                -0.5f + hero.getPosition().y + bottomLeft.y,
-                topRight.x - bottomLeft.x,
-                topRight.y - bottomLeft.y);
-        shape.end();
+                -0.85f + position.x + box.getMinX(),
+                -0.5f + position.y + box.getMinY(),
+                box.getWidth(),
+                box.getHeight());
     }
 
     /**
@@ -0,0 +1,131 @@
+package room;
+
+import collision.SolidityGrid;
+import java.util.Arrays;
+import java.util.Random;
+import level.elements.tile.Tile;
+import level.tools.LevelElement;
+
+/**
+ * Connected areas of the walkable tiles of a room.
+ *
+ * <p>Every walkable tile gets the label of its component. The floor tiles of every component are
+ * stored in one array, grouped by component, so a random reachable floor tile is picked in
+ * constant time.
+ */
+public class ConnectedComponents {
+    /** Label of tiles that are not walkable */
+    public static final int NONE = -1;
+
+    private final int width;
+    private final int height;
+    private final int[] labels;
+    private final int componentCount;
+    // floor tiles of component c are floorTiles[componentStart[c]] to [componentStart[c + 1] - 1]
+    private final int[] componentStart;
+    private final int[] floorTiles;
+
+    /**
+     * Label the walkable tiles with one flood fill per component.
+     *
+     * @param grid Terrain of the room
+     * @param layout Layout of the room, indexed [y][x], to find the floor tiles
+     */
+    public ConnectedComponents(SolidityGrid grid, Tile[][] layout) {
+        width = grid.getWidth();
+        height = grid.getHeight();
+        labels = new int[width * height];
+        Arrays.fill(labels, NONE);
+        int[] queue = new int[width * height];
+        int components = 0;
+        for (int start = 0; start < labels.length; start++) {
+            if (labels[start] != NONE || grid.isSolid(start % width, start / width)) continue;
+            labels[start] = components;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int index = queue[head++];
+                int x = index % width;
+                int y = index / width;
+                tail = fill(grid, x + 1, y, components, queue, tail);
+                tail = fill(grid, x - 1, y, components, queue, tail);
+                tail = fill(grid, x, y + 1, components, queue, tail);
+                tail = fill(grid, x, y - 1, components, queue, tail);
+            }
+            components++;
+        }
+        componentCount = components;
+
+        // counting sort of the floor tiles by their component
+        componentStart = new int[components + 1];
+        for (int index = 0; index < labels.length; index++) {
+            if (isFloor(layout, index)) componentStart[labels[index] + 1]++;
+        }
+        for (int c = 0; c < components; c++) componentStart[c + 1] += componentStart[c];
+        floorTiles = new int[componentStart[components]];
+        int[] next = Arrays.copyOf(componentStart, components);
+        for (int index = 0; index < labels.length; index++) {
+            if (isFloor(layout, index)) floorTiles[next[labels[index]]++] = index;
+        }
+    }
+
+    private int fill(SolidityGrid grid, int x, int y, int label, int[] queue, int tail) {
+        if (grid.isSolid(x, y)) return tail;
+        int index = y * width + x;
+        if (labels[index] != NONE) return tail;
+        labels[index] = label;
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    private boolean isFloor(Tile[][] layout, int index) {
+        return labels[index] != NONE
+                && layout[index / width][index % width].getLevelElement() == LevelElement.FLOOR;
+    }
+
+    /**
+     * @return Number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @param x x of the tile
+     * @param y y of the tile
+     * @return Component of the tile, {@link #NONE} if it is not walkable
+     */
+    public int getComponent(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return NONE;
+        return labels[y * width + x];
+    }
+
+    /**
+     * @param component A component
+     * @return Number of floor tiles in the component
+     */
+    public int getFloorTileCount(int component) {
+        return componentStart[component + 1] - componentStart[component];
+    }
+
+    /**
+     * Pick a random floor tile of a component.
+     *
+     * @param component A component
+     * @param random Random number generator
+     * @return Index ({@code y * width + x}) of the tile, -1 if the component has no floor tiles
+     */
+    public int getRandomFloorTile(int component, Random random) {
+        int count = getFloorTileCount(component);
+        if (count == 0) return -1;
+        return floorTiles[componentStart[component] + random.nextInt(count)];
+    }
+
+    /**
+     * @return Width of the room, to convert tile indices into coordinates
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,118 @@
+package room;
+
+import collision.CharacterDirection;
+import collision.SolidityGrid;
+import level.elements.tile.DoorTile;
+import level.elements.tile.Tile;
+import level.tools.Coordinate;
+
+/**
+ * Walking distances and first steps between the doors and the start tile of a room.
+ *
+ * <p>Doors are measured at their doorstep. The doors have the indices 0 to {@code
+ * getDoors().length - 1}, the start tile has the index {@link #getStartIndex()}. Used as the edges
+ * of the abstract graph of a level, see {@link levelgraph.LevelPathPlanner}, and wherever the
+ * travel cost inside a room is needed without a search.
+ */
+public class DoorDistances {
+    /** Distance between two points that are not connected inside the room */
+    public static final int UNREACHABLE = -1;
+
+    private static final CharacterDirection[] DIRECTIONS = CharacterDirection.values();
+
+    private final DoorTile[] doors;
+    private final int[][] distances;
+    private final byte[][] firstSteps;
+
+    /**
+     * Compute the tables with one search per door and the start tile.
+     *
+     * @param doors Doors of the room
+     * @param start Start tile of the room, may be null
+     * @param grid Terrain of the room
+     */
+    public DoorDistances(DoorTile[] doors, Tile start, SolidityGrid grid) {
+        this.doors = doors;
+        int count = doors.length + 1;
+        Coordinate[] points = new Coordinate[count];
+        for (int i = 0; i < doors.length; i++) points[i] = coordinateOf(doors[i].getDoorstep());
+        points[doors.length] = coordinateOf(start);
+
+        distances = new int[count][count];
+        firstSteps = new byte[count][count];
+        int width = grid.getWidth();
+        for (int to = 0; to < count; to++) {
+            int[] toPoint = null;
+            if (points[to] != null) toPoint = grid.distancesFrom(points[to].x, points[to].y);
+            for (int from = 0; from < count; from++) {
+                Coordinate point = points[from];
+                int distance = UNREACHABLE;
+                if (toPoint != null && point != null) distance = toPoint[point.y * width + point.x];
+                distances[from][to] = distance;
+                firstSteps[from][to] =
+                        (byte) firstStep(toPoint, point, distance, width, grid).ordinal();
+            }
+        }
+    }
+
+    private static Coordinate coordinateOf(Tile tile) {
+        return tile != null ? tile.getCoordinate() : null;
+    }
+
+    // the neighbour that is one step closer to the target
+    private static CharacterDirection firstStep(
+            int[] toPoint, Coordinate from, int distance, int width, SolidityGrid grid) {
+        if (distance <= 0) return CharacterDirection.NONE;
+        if (from.y + 1 < grid.getHeight() && toPoint[(from.y + 1) * width + from.x] == distance - 1)
+            return CharacterDirection.UP;
+        if (from.y > 0 && toPoint[(from.y - 1) * width + from.x] == distance - 1)
+            return CharacterDirection.DOWN;
+        if (from.x > 0 && toPoint[from.y * width + from.x - 1] == distance - 1)
+            return CharacterDirection.LEFT;
+        return CharacterDirection.RIGHT;
+    }
+
+    /**
+     * @return Doors of the room, their index is used by {@link #getDistance(int, int)}
+     */
+    public DoorTile[] getDoors() {
+        return doors;
+    }
+
+    /**
+     * @return Index of the start tile of the room
+     */
+    public int getStartIndex() {
+        return doors.length;
+    }
+
+    /**
+     * @param door Door of the room
+     * @return Index of the door, -1 if the door is not in this room
+     */
+    public int indexOf(DoorTile door) {
+        for (int i = 0; i < doors.length; i++) {
+            if (doors[i] == door) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @param from Index of the first door or the start tile
+     * @param to Index of the second door or the start tile
+     * @return Steps from the first to the second point, or {@link #UNREACHABLE}
+     */
+    public int getDistance(int from, int to) {
+        return distances[from][to];
+    }
+
+    /**
+     * @param from Index of the first door or the start tile
+     * @param to Index of the second door or the start tile
+     * @return Direction of the first step of a shortest way, NONE if both are the same tile or not
+     *     connected
+     */
+    public CharacterDirection getFirstStep(int from, int to) {
+        return DIRECTIONS[firstSteps[from][to]];
+    }
+}
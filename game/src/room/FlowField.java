@@ -0,0 +1,121 @@
+package room;
+
+import collision.CharacterDirection;
+import collision.SolidityGrid;
+import java.util.Arrays;
+
+/**
+ * Directions from every tile of a room to one target tile.
+ *
+ * <p>A single breadth first search from the target writes for every reachable tile the direction
+ * of the next step on a shortest path into a {@code byte[]}. Any number of monsters can then look
+ * up their next step in constant time. The field is only computed again if the target moves to
+ * another tile or the terrain changes.
+ */
+public class FlowField {
+    private static final CharacterDirection[] DIRECTIONS = CharacterDirection.values();
+    private static final byte UNREACHED = -1;
+
+    private SolidityGrid grid;
+    private int width;
+    private int targetX = -1;
+    private int targetY = -1;
+    private byte[] directions = new byte[0];
+    private int[] queue = new int[0];
+    private int reached;
+
+    /**
+     * Make sure the field leads to the given target, recompute it if needed.
+     *
+     * @param grid Terrain of the room
+     * @param targetX x of the target tile
+     * @param targetY y of the target tile
+     * @return if the field was computed again
+     */
+    public boolean update(SolidityGrid grid, int targetX, int targetY) {
+        if (leadsTo(grid, targetX, targetY)) return false;
+        this.grid = grid;
+        this.targetX = targetX;
+        this.targetY = targetY;
+        compute();
+        return true;
+    }
+
+    /**
+     * @param grid Terrain of the room
+     * @param targetX x of the target tile
+     * @param targetY y of the target tile
+     * @return if the field was computed for this terrain and target
+     */
+    public boolean leadsTo(SolidityGrid grid, int targetX, int targetY) {
+        return grid == this.grid && targetX == this.targetX && targetY == this.targetY;
+    }
+
+    private void compute() {
+        width = grid.getWidth();
+        int size = width * grid.getHeight();
+        if (directions.length != size) {
+            directions = new byte[size];
+            queue = new int[size];
+        }
+        Arrays.fill(directions, UNREACHED);
+        reached = 0;
+        if (grid.isSolid(targetX, targetY)) return;
+
+        int target = targetY * width + targetX;
+        directions[target] = (byte) CharacterDirection.NONE.ordinal();
+        queue[0] = target;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % width;
+            int y = index / width;
+            // every neighbour steps back to this tile
+            tail = visit(x, y + 1, CharacterDirection.DOWN, tail);
+            tail = visit(x, y - 1, CharacterDirection.UP, tail);
+            tail = visit(x - 1, y, CharacterDirection.RIGHT, tail);
+            tail = visit(x + 1, y, CharacterDirection.LEFT, tail);
+        }
+        reached = tail;
+    }
+
+    /**
+     * @return Number of tiles reached by the last computation
+     */
+    public int getReachedTiles() {
+        return reached;
+    }
+
+    private int visit(int x, int y, CharacterDirection step, int tail) {
+        if (grid.isSolid(x, y)) return tail;
+        int index = y * width + x;
+        if (directions[index] != UNREACHED) return tail;
+        directions[index] = (byte) step.ordinal();
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    /**
+     * @param x x of a tile
+     * @param y y of a tile
+     * @return Direction of the next step from the tile to the target. NONE on the target and on
+     *     tiles from which the target can not be reached
+     */
+    public CharacterDirection getDirection(int x, int y) {
+        if (grid == null || x < 0 || y < 0 || x >= width || y >= grid.getHeight())
+            return CharacterDirection.NONE;
+        byte direction = directions[y * width + x];
+        return direction == UNREACHED ? CharacterDirection.NONE : DIRECTIONS[direction];
+    }
+
+    /**
+     * @param x x of a tile
+     * @param y y of a tile
+     * @return if the target can be reached from the tile
+     */
+    public boolean isReachable(int x, int y) {
+        if (grid == null || x < 0 || y < 0 || x >= width || y >= grid.getHeight()) return false;
+        return directions[y * width + x] != UNREACHED;
+    }
+}
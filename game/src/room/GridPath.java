@@ -0,0 +1,43 @@
+package room;
+
+/**
+ * A path of tiles in a room grid, stored as tile indices ({@code y * width + x}).
+ *
+ * <p>The path is immutable, so it can be created on a worker thread and used on the game thread.
+ */
+public final class GridPath {
+    private final int width;
+    private final int[] tiles;
+
+    /**
+     * @param width Width of the grid
+     * @param tiles Indices of the tiles from the start to the goal, the array is not copied
+     */
+    public GridPath(int width, int[] tiles) {
+        this.width = width;
+        this.tiles = tiles;
+    }
+
+    /**
+     * @return Number of tiles, including start and goal
+     */
+    public int getCount() {
+        return tiles.length;
+    }
+
+    /**
+     * @param index Index of the tile in the path, 0 is the start
+     * @return x of the tile
+     */
+    public int getX(int index) {
+        return tiles[index] % width;
+    }
+
+    /**
+     * @param index Index of the tile in the path, 0 is the start
+     * @return y of the tile
+     */
+    public int getY(int index) {
+        return tiles[index] / width;
+    }
+}
@@ -0,0 +1,196 @@
+package room;
+
+import collision.SolidityGrid;
+import java.util.Arrays;
+
+/**
+ * A* with Jump Point Search for 4-connected grids with uniform costs.
+ *
+ * <p>Shortest paths are only searched in a canonical form: horizontal runs, which turn up or down
+ * only where a vertical run leads to the goal or around a corner. Straight runs are skipped by
+ * jumping, only the tiles where the path can turn are put into the open list. This expands far
+ * fewer nodes than a plain A* over all tiles.
+ *
+ * <p>All buffers are primitive arrays that are reused between searches, tiles visited in an older
+ * search are recognized by a stamp, so nothing has to be cleared.
+ */
+public class JumpPointPathFinder implements PathFinder {
+    // the frozen terrain of the current search, read directly without a copy
+    private SolidityGrid grid;
+    private int width;
+    private int goalX;
+    private int goalY;
+
+    private int[] cost = new int[0];
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] closed = new int[0];
+    private int stamp;
+
+    // binary min heap of tile indices, ordered by heapKey
+    private int[] heap = new int[16];
+    private int[] heapKey = new int[16];
+    private int heapSize;
+
+    private int expanded;
+
+    @Override
+    public GridPath findPath(SolidityGrid grid, int fromX, int fromY, int toX, int toY) {
+        this.grid = grid;
+        width = grid.getWidth();
+        expanded = 0;
+        if (grid.isSolid(fromX, fromY) || grid.isSolid(toX, toY)) return null;
+        int size = width * grid.getHeight();
+        if (seen.length < size) {
+            cost = new int[size];
+            parent = new int[size];
+            seen = new int[size];
+            closed = new int[size];
+            stamp = 0;
+        }
+        stamp++;
+        goalX = toX;
+        goalY = toY;
+        heapSize = 0;
+
+        int start = fromY * width + fromX;
+        int goal = toY * width + toX;
+        seen[start] = stamp;
+        cost[start] = 0;
+        parent[start] = -1;
+        push(start, heuristic(fromX, fromY));
+        while (heapSize > 0) {
+            int index = pop();
+            if (closed[index] == stamp) continue;
+            closed[index] = stamp;
+            if (index == goal) return buildPath(start, goal);
+            expanded++;
+            expand(index);
+        }
+        return null;
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expanded;
+    }
+
+    // visit the jump points reachable from the pruned neighbours of a node
+    private void expand(int index) {
+        int x = index % width;
+        int y = index / width;
+        int from = parent[index];
+        if (from < 0) {
+            jumpFrom(index, x, y, 1, 0);
+            jumpFrom(index, x, y, -1, 0);
+            jumpFrom(index, x, y, 0, 1);
+            jumpFrom(index, x, y, 0, -1);
+            return;
+        }
+        int dx = Integer.signum(x - from % width);
+        int dy = Integer.signum(y - from / width);
+        if (dx != 0) {
+            jumpFrom(index, x, y, dx, 0);
+            jumpFrom(index, x, y, 0, 1);
+            jumpFrom(index, x, y, 0, -1);
+        } else {
+            jumpFrom(index, x, y, 0, dy);
+            jumpFrom(index, x, y, 1, 0);
+            jumpFrom(index, x, y, -1, 0);
+        }
+    }
+
+    private void jumpFrom(int index, int x, int y, int dx, int dy) {
+        int jumpPoint = dx != 0 ? jumpHorizontal(x + dx, y, dx) : jumpVertical(x, y + dy, dy);
+        if (jumpPoint < 0 || closed[jumpPoint] == stamp) return;
+        int jumpX = jumpPoint % width;
+        int jumpY = jumpPoint / width;
+        int newCost = cost[index] + Math.abs(jumpX - x) + Math.abs(jumpY - y);
+        if (seen[jumpPoint] == stamp && cost[jumpPoint] <= newCost) return;
+        seen[jumpPoint] = stamp;
+        cost[jumpPoint] = newCost;
+        parent[jumpPoint] = index;
+        push(jumpPoint, newCost + heuristic(jumpX, jumpY));
+    }
+
+    // horizontal runs stop at forced neighbours and where a vertical run finds a jump point
+    private int jumpHorizontal(int x, int y, int dx) {
+        while (!grid.isSolid(x, y)) {
+            if (x == goalX && y == goalY) return y * width + x;
+            if ((!grid.isSolid(x, y + 1) && grid.isSolid(x - dx, y + 1))
+                    || (!grid.isSolid(x, y - 1) && grid.isSolid(x - dx, y - 1)))
+                return y * width + x;
+            if (jumpVertical(x, y + 1, 1) >= 0 || jumpVertical(x, y - 1, -1) >= 0)
+                return y * width + x;
+            x += dx;
+        }
+        return -1;
+    }
+
+    // vertical runs only stop at forced neighbours and the goal
+    private int jumpVertical(int x, int y, int dy) {
+        while (!grid.isSolid(x, y)) {
+            if (x == goalX && y == goalY) return y * width + x;
+            if ((!grid.isSolid(x + 1, y) && grid.isSolid(x + 1, y - dy))
+                    || (!grid.isSolid(x - 1, y) && grid.isSolid(x - 1, y - dy)))
+                return y * width + x;
+            y += dy;
+        }
+        return -1;
+    }
+
+    private int heuristic(int x, int y) {
+        return Math.abs(goalX - x) + Math.abs(goalY - y);
+    }
+
+    // the jump points are connected by straight runs, fill in the tiles between them
+    private GridPath buildPath(int start, int goal) {
+        int[] tiles = new int[cost[goal] + 1];
+        int count = tiles.length;
+        for (int index = goal; index != start; index = parent[index]) {
+            int from = parent[index];
+            int step;
+            if (from / width == index / width) step = Integer.signum(index - from);
+            else step = index > from ? width : -width;
+            for (int tile = index; tile != from; tile -= step) tiles[--count] = tile;
+        }
+        tiles[0] = start;
+        return new GridPath(width, tiles);
+    }
+
+    private void push(int index, int key) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) break;
+            heap[i] = heap[up];
+            heapKey[i] = heapKey[up];
+            i = up;
+        }
+        heap[i] = index;
+        heapKey[i] = key;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int index = heap[--heapSize];
+        int key = heapKey[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) child++;
+            if (heapKey[child] >= key) break;
+            heap[i] = heap[child];
+            heapKey[i] = heapKey[child];
+            i = child;
+        }
+        heap[i] = index;
+        heapKey[i] = key;
+        return top;
+    }
+}
@@ -0,0 +1,26 @@
+package room;
+
+import collision.SolidityGrid;
+
+/**
+ * Finds shortest paths in a room grid, stepping to the four neighbours of a tile.
+ *
+ * <p>Implementations may keep buffers between searches and need not be thread safe, every thread
+ * uses its own instance.
+ */
+public interface PathFinder {
+    /**
+     * @param grid Terrain of the room
+     * @param fromX x of the start tile
+     * @param fromY y of the start tile
+     * @param toX x of the goal tile
+     * @param toY y of the goal tile
+     * @return Path from the start to the goal, null if there is none
+     */
+    GridPath findPath(SolidityGrid grid, int fromX, int fromY, int toX, int toY);
+
+    /**
+     * @return Number of nodes expanded by the last search
+     */
+    int getExpandedNodes();
+}
@@ -0,0 +1,175 @@
+package room;
+
+import collision.SolidityGrid;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import metrics.PathfindingMetrics;
+
+/**
+ * Plans paths on worker threads, so many monsters choosing new goals in the same frame do not
+ * block the game.
+ *
+ * <p>A request holds the {@link SolidityGrid} of the room. Only frozen grids are accepted, they
+ * never change, so the workers can read them without any locking. Finished requests are collected
+ * and handed back on the game thread by {@link #beginFrame()}, i.e. in the tick after the request.
+ *
+ * <p>If too many requests are waiting, or the service has no workers, paths are planned on the
+ * calling thread as long as the time budget of the frame is not used up. Requests that get neither
+ * return null and have to be sent again in the next frame. Requests may be sent from several
+ * threads at once, like the threads of the decide phase of a tick.
+ */
+public class PathService {
+    /** Receives the planned paths on the game thread */
+    public interface Requester {
+        /**
+         * @param request The finished request, {@link Request#getPath()} is null if there is no
+         *     path
+         */
+        void onPathFound(Request request);
+    }
+
+    /** A path request, immutable except for the result */
+    public static final class Request {
+        private final Requester requester;
+        private final SolidityGrid grid;
+        private final int fromX;
+        private final int fromY;
+        private final int toX;
+        private final int toY;
+        private GridPath path;
+
+        private Request(
+                Requester requester, SolidityGrid grid, int fromX, int fromY, int toX, int toY) {
+            this.requester = requester;
+            this.grid = grid;
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.toX = toX;
+            this.toY = toY;
+        }
+
+        /**
+         * @return The grid the path is planned on
+         */
+        public SolidityGrid getGrid() {
+            return grid;
+        }
+
+        /**
+         * @return x of the goal tile
+         */
+        public int getToX() {
+            return toX;
+        }
+
+        /**
+         * @return y of the goal tile
+         */
+        public int getToY() {
+            return toY;
+        }
+
+        /**
+         * @return The planned path, null if there is no path or the request is not finished
+         */
+        public GridPath getPath() {
+            return path;
+        }
+    }
+
+    /** Default time per frame for planning on the calling threads */
+    public static final long DEFAULT_BUDGET_NANOS = 1_000_000;
+
+    private final ExecutorService workers;
+    private final ThreadLocal<PathFinder> finders;
+    private final ConcurrentLinkedQueue<Request> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxWaiting;
+    private final long budgetNanos;
+    private final AtomicLong spentNanos = new AtomicLong();
+
+    /** Creates a service with one worker less than there are processors, at least one. */
+    public PathService() {
+        this(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                DEFAULT_BUDGET_NANOS,
+                JumpPointPathFinder::new);
+    }
+
+    /**
+     * @param workerCount Number of worker threads, 0 to plan everything on the calling threads
+     * @param budgetNanos Time per frame for planning on the calling threads
+     * @param finders Creates the path finder of every thread
+     */
+    public PathService(int workerCount, long budgetNanos, Supplier<PathFinder> finders) {
+        // Java 17 has no virtual threads, the workers are plain daemon threads
+        workers =
+                workerCount > 0
+                        ? Executors.newFixedThreadPool(
+                                workerCount,
+                                runnable -> {
+                                    Thread thread = new Thread(runnable, "path-worker");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                })
+                        : null;
+        this.finders = ThreadLocal.withInitial(finders);
+        maxWaiting = workerCount * 64;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Request a path. The requester gets the result in the next tick, also if it was planned on the
+     * calling thread.
+     *
+     * @param requester Receives the path
+     * @param grid Terrain of the room
+     * @param fromX x of the start tile
+     * @param fromY y of the start tile
+     * @param toX x of the goal tile
+     * @param toY y of the goal tile
+     * @return The request, null if it could not be accepted in this frame
+     * @throws IllegalArgumentException if the grid is not frozen
+     */
+    public Request request(
+            Requester requester, SolidityGrid grid, int fromX, int fromY, int toX, int toY) {
+        if (!grid.isFrozen()) throw new IllegalArgumentException("the grid has to be frozen");
+        Request request = new Request(requester, grid, fromX, fromY, toX, toY);
+        if (workers != null && waiting.get() < maxWaiting) {
+            waiting.incrementAndGet();
+            workers.execute(
+                    () -> {
+                        plan(request, finders.get());
+                        waiting.decrementAndGet();
+                        finished.add(request);
+                    });
+            return request;
+        }
+        if (spentNanos.get() >= budgetNanos) return null;
+        long start = System.nanoTime();
+        plan(request, finders.get());
+        spentNanos.addAndGet(System.nanoTime() - start);
+        finished.add(request);
+        return request;
+    }
+
+    private static void plan(Request request, PathFinder finder) {
+        long start = PathfindingMetrics.startSearch();
+        request.path =
+                finder.findPath(
+                        request.grid, request.fromX, request.fromY, request.toX, request.toY);
+        PathfindingMetrics.recordSearch(
+                "grid", start, finder.getExpandedNodes(), request.path != null);
+    }
+
+    /** Hand the finished paths to their requesters and reset the time budget. */
+    public void beginFrame() {
+        spentNanos.set(0);
+        Request request;
+        while ((request = finished.poll()) != null) request.requester.onPathFound(request);
+    }
+}
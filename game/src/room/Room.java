@@ -1,14 +1,19 @@
 package room;
 
 import basiselements.DungeonElement;
+import collision.CollisionMap;
+import collision.SolidityGrid;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
 import level.elements.TileLevel;
 import level.elements.tile.DoorTile;
 import level.elements.tile.Tile;
+import level.tools.Coordinate;
 import level.tools.DesignLabel;
 import level.tools.LevelElement;
 import levelgraph.LevelNode;
+import metrics.PathfindingMetrics;
 
 /** A Level that can be used as a Room in a GraphLevel */
 public class Room extends TileLevel implements IRoom {
@@ -19,6 +24,16 @@ public class Room extends TileLevel implements IRoom {
 
     private LevelNode levelNode;
 
+    // created on first use, also by monsters that plan their way through this room in parallel
+    private volatile CollisionMap collisionMap;
+    // read by the decide phase on other threads, written after the caches are cleared
+    private volatile int terrainVersion;
+    // read without the lock by the chasing monsters, replaced under the lock
+    private volatile FlowField flowField;
+    private volatile DoorDistances doorDistances;
+    private CompletableFuture<DoorDistances> pendingDoorDistances;
+    private volatile ConnectedComponents components;
+
     public Room(Tile[][] layout) {
         super(layout);
     }
@@ -33,9 +48,11 @@ public class Room extends TileLevel implements IRoom {
      *
      * @param door
      */
-    public void addDoor(DoorTile door) {
+    public synchronized void addDoor(DoorTile door) {
         // oder: hier DoorTile erzeugen?
         doors.add(door);
+        doorDistances = null;
+        pendingDoorDistances = null;
     }
 
     public void addElement(DungeonElement dungeonElement) {
@@ -50,6 +67,161 @@ public class Room extends TileLevel implements IRoom {
         return elements;
     }
 
+    /**
+     * Get the collision map of this room.
+     *
+     * <p>The map is created the first time it is needed and kept until the terrain changes, so
+     * entering a room again does not rebuild it.
+     *
+     * @return The collision map of this room
+     */
+    public CollisionMap getCollisionMap() {
+        CollisionMap map = collisionMap;
+        if (map != null) return map;
+        synchronized (this) {
+            if (collisionMap == null) {
+                map = new CollisionMap();
+                map.regenHitboxen(this);
+                collisionMap = map;
+            }
+            return collisionMap;
+        }
+    }
+
+    /**
+     * Has to be called if tiles of this room change their accessibility. Monsters compare {@link
+     * #getTerrainVersion()} with the version their path was planned on and plan it again.
+     */
+    public synchronized void invalidateCollisionMap() {
+        collisionMap = null;
+        doorDistances = null;
+        pendingDoorDistances = null;
+        components = null;
+        flowField = null;
+        terrainVersion++;
+    }
+
+    /**
+     * Can be read from any thread. A thread that sees the new version also sees the cleared caches.
+     *
+     * @return Counter that is increased every time the terrain of this room changes
+     */
+    public int getTerrainVersion() {
+        return terrainVersion;
+    }
+
+    /**
+     * Get the walking distances between the doors and the start tile of this room.
+     *
+     * <p>The distances are computed the first time they are needed, or in the background by {@link
+     * #precomputeDoorDistances()}, and kept until the terrain changes.
+     *
+     * @return Distances between all doors and the start tile
+     */
+    public DoorDistances getDoorDistances() {
+        DoorDistances result = doorDistances;
+        if (result != null) return result;
+        CompletableFuture<DoorDistances> pending;
+        int version;
+        synchronized (this) {
+            if (doorDistances != null) return doorDistances;
+            pending = pendingDoorDistances;
+            version = terrainVersion;
+        }
+        // wait or compute without the lock, the other accessors of the room stay usable
+        if (pending != null) result = pending.join();
+        else
+            result =
+                    new DoorDistances(
+                            doors.toArray(new DoorTile[0]),
+                            getStartTile(),
+                            getCollisionMap().getSolidityGrid());
+        synchronized (this) {
+            if (doorDistances != null) return doorDistances;
+            // only kept if the doors and the terrain did not change meanwhile
+            if (pendingDoorDistances == pending && terrainVersion == version) {
+                doorDistances = result;
+                pendingDoorDistances = null;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Start computing the door distances in the background. Has to be called after all doors and
+     * doorsteps are set.
+     */
+    public synchronized void precomputeDoorDistances() {
+        DoorTile[] doorArray = doors.toArray(new DoorTile[0]);
+        Tile start = getStartTile();
+        // the tiles are only read here, the background task works on this snapshot
+        SolidityGrid grid = SolidityGrid.fromLayout(getLayout());
+        pendingDoorDistances =
+                CompletableFuture.supplyAsync(() -> new DoorDistances(doorArray, start, grid));
+    }
+
+    /**
+     * Get the connected areas of the walkable tiles, computed when first needed.
+     *
+     * @return Components of this room
+     */
+    public ConnectedComponents getComponents() {
+        ConnectedComponents result = components;
+        if (result != null) return result;
+        synchronized (this) {
+            if (components == null)
+                components =
+                        new ConnectedComponents(getCollisionMap().getSolidityGrid(), getLayout());
+            return components;
+        }
+    }
+
+    /**
+     * Get the flow field to the given target, shared by all monsters of this room.
+     *
+     * <p>The field is only computed again if the target is on another tile than last time or the
+     * terrain changed. A returned field never changes, monsters that still hold the field to the
+     * old target keep reading a consistent field while others get the new one.
+     *
+     * @param target Tile to move to
+     * @return Field with the next step from every tile to the target
+     */
+    public FlowField getFlowField(Coordinate target) {
+        return getFlowField(target.x, target.y);
+    }
+
+    /**
+     * Like {@link #getFlowField(Coordinate)}, without a coordinate object.
+     *
+     * @param targetX x of the tile to move to
+     * @param targetY y of the tile to move to
+     * @return Field with the next step from every tile to the target
+     */
+    public FlowField getFlowField(int targetX, int targetY) {
+        SolidityGrid grid = getCollisionMap().getSolidityGrid();
+        FlowField field = flowField;
+        if (field != null && field.leadsTo(grid, targetX, targetY)) {
+            PathfindingMetrics.recordCacheLookup(true);
+            return field;
+        }
+        synchronized (this) {
+            // another monster may have built it while this one waited for the lock
+            grid = getCollisionMap().getSolidityGrid();
+            boolean cached = flowField != null && flowField.leadsTo(grid, targetX, targetY);
+            if (!cached) {
+                long start = PathfindingMetrics.startSearch();
+                // a new field instead of updating the old one, other threads may still read it
+                field = new FlowField();
+                field.update(grid, targetX, targetY);
+                int reached = field.getReachedTiles();
+                PathfindingMetrics.recordSearch("flowField", start, reached, reached > 0);
+                flowField = field;
+            }
+            PathfindingMetrics.recordCacheLookup(cached);
+            return flowField;
+        }
+    }
+
     @Override
     public LinkedHashSet<DoorTile> getDoors() {
         return doors;
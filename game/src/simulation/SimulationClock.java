@@ -0,0 +1,89 @@
+package simulation;
+
+/**
+ * Fixed timestep for the simulation, independent of the frame rate.
+ *
+ * <p>The time of every rendered frame is collected, and the simulation runs as many ticks of fixed
+ * length as fit into it. Slow frames are made up with several ticks, but never more than the
+ * catch-up limit, so one long stall does not freeze the game with a burst of ticks. The time left
+ * over is returned as interpolation factor, the renderer draws the characters between their last
+ * two simulated positions.
+ */
+public class SimulationClock {
+    /** The speeds of the characters are tuned for 30 steps per second */
+    public static final int DEFAULT_TICKS_PER_SECOND = 30;
+
+    /** Most ticks run in one frame, the remaining time is dropped */
+    public static final int DEFAULT_MAX_TICKS_PER_FRAME = 5;
+
+    private final double tickSeconds;
+    private final int maxTicksPerFrame;
+    private double accumulator;
+    private long ticks;
+    private long droppedTicks;
+
+    public SimulationClock() {
+        this(
+                Integer.getInteger("dungeon.tps", DEFAULT_TICKS_PER_SECOND),
+                DEFAULT_MAX_TICKS_PER_FRAME);
+    }
+
+    /**
+     * @param ticksPerSecond Number of simulation steps per second of game time
+     * @param maxTicksPerFrame Most ticks run in one frame to catch up
+     */
+    public SimulationClock(int ticksPerSecond, int maxTicksPerFrame) {
+        if (ticksPerSecond <= 0 || maxTicksPerFrame <= 0)
+            throw new IllegalArgumentException("ticks per second and catch-up must be positive");
+        tickSeconds = 1.0 / ticksPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /**
+     * Add the time of a frame.
+     *
+     * @param deltaSeconds Time since the last frame in seconds
+     * @return Number of ticks to run in this frame
+     */
+    public int advance(float deltaSeconds) {
+        if (deltaSeconds > 0) accumulator += deltaSeconds;
+        int due = (int) (accumulator / tickSeconds);
+        if (due > maxTicksPerFrame) {
+            // too far behind, run the limit and forget the rest
+            droppedTicks += due - maxTicksPerFrame;
+            accumulator -= (due - maxTicksPerFrame) * tickSeconds;
+            due = maxTicksPerFrame;
+        }
+        accumulator -= due * tickSeconds;
+        ticks += due;
+        return due;
+    }
+
+    /**
+     * @return How far the game time is between the last tick and the next one, from 0 to 1
+     */
+    public float getAlpha() {
+        return (float) Math.min(1, accumulator / tickSeconds);
+    }
+
+    /**
+     * @return Length of one tick in seconds
+     */
+    public float getTickSeconds() {
+        return (float) tickSeconds;
+    }
+
+    /**
+     * @return Number of ticks run since the start
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return Number of ticks skipped because the frames were too slow to catch up
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
@@ -0,0 +1,7 @@
+package simulation;
+
+/** Part of the simulation that advances in fixed steps, driven by a {@link SimulationClock}. */
+public interface Tickable {
+    /** Advance by one tick */
+    void tick();
+}
@@ -0,0 +1,106 @@
+package character;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import collision.CharacterDirection;
+import collision.Collidable;
+import collision.Hitbox;
+import collision.SolidityGrid;
+import java.lang.management.ManagementFactory;
+import tools.Point;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class TestDungeonCharacter {
+
+    /** Walks left and right through a corridor, turning at the walls */
+    private static class Walker extends DungeonCharacter {
+        private final SolidityGrid terrain;
+        private CharacterDirection direction = CharacterDirection.RIGHT;
+
+        Walker(SolidityGrid terrain) {
+            super(1, 0.3f, new Hitbox(8, 8));
+            this.terrain = terrain;
+        }
+
+        @Override
+        protected CharacterDirection getDirection() {
+            return direction;
+        }
+
+        @Override
+        protected void setAnimation(CharacterDirection moved) {
+            if (moved == CharacterDirection.NONE) direction = direction.inverse();
+        }
+
+        @Override
+        protected SolidityGrid getTerrain() {
+            return terrain;
+        }
+
+        @Override
+        public void colide(Collidable other, CharacterDirection from) {}
+    }
+
+    // a corridor in row 1, surrounded by walls
+    private static SolidityGrid corridor() {
+        SolidityGrid grid = new SolidityGrid(12, 3);
+        for (int x = 0; x < 12; x++) {
+            grid.setSolid(x, 0);
+            grid.setSolid(x, 2);
+        }
+        grid.setSolid(0, 1);
+        grid.setSolid(11, 1);
+        return grid;
+    }
+
+    @Test
+    public void testUpdateDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Walker walker = new Walker(corridor());
+        walker.setPosition(1, 1);
+        // warm up, loads the classes and walks into both walls
+        for (int i = 0; i < 1000; i++) walker.update();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10000; i++) walker.update();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(0, allocated);
+        walker.release();
+    }
+
+    /** Callers may keep the position, it does not change with the character */
+    @Test
+    public void testGetPositionReturnsCopy() {
+        Walker walker = new Walker(corridor());
+        walker.setPosition(1, 1);
+        Point kept = walker.getPosition();
+        kept.x = 5;
+        assertEquals(1, walker.getX(), 0);
+
+        walker.setPosition(2, 1);
+        assertEquals(5, kept.x, 0);
+        assertNotSame(walker.getPosition(), walker.getPosition());
+        assertEquals(2, walker.getPosition().x, 0);
+        walker.release();
+        assertEquals(2, walker.getPosition().x, 0);
+        assertEquals(2, walker.getX(), 0);
+    }
+
+    /** A released character can still be killed, e.g. by a late hit */
+    @Test
+    public void testDieAfterRelease() {
+        Walker walker = new Walker(corridor());
+        walker.release();
+
+        walker.die();
+
+        assertTrue(walker.removable());
+    }
+}
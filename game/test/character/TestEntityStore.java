@@ -0,0 +1,76 @@
+package character;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestEntityStore {
+
+    @Test
+    public void testAdd() {
+        EntityStore store = new EntityStore(1);
+        int a = store.add();
+        int b = store.add();
+        store.setPosition(b, 2, 3);
+
+        assertEquals(2, store.size());
+        assertEquals(2, store.getLimit());
+        assertTrue(store.hasFlag(a, EntityStore.ALIVE));
+        assertEquals(0f, store.getX(a), 0);
+        assertEquals(2f, store.getX(b), 0);
+        assertEquals(3f, store.getY(b), 0);
+    }
+
+    @Test
+    public void testReleaseReusesId() {
+        EntityStore store = new EntityStore();
+        int a = store.add();
+        store.add();
+        store.setPosition(a, 4, 4);
+        store.setVelocity(a, 1, 1);
+        store.release(a);
+        assertFalse(store.hasFlag(a, EntityStore.ALIVE));
+
+        // the reused id starts with a fresh state
+        int c = store.add();
+        assertEquals(a, c);
+        assertEquals(0f, store.getX(c), 0);
+        assertEquals(0f, store.getVelocityX(c), 0);
+        assertEquals(2, store.getLimit());
+    }
+
+    @Test
+    public void testClearFlag() {
+        EntityStore store = new EntityStore();
+        int a = store.add();
+        int b = store.add();
+        store.setFlag(a, EntityStore.MOVED, true);
+        store.setFlag(b, EntityStore.MOVED, true);
+        store.clearFlag(EntityStore.MOVED);
+        assertFalse(store.hasFlag(a, EntityStore.MOVED));
+        assertTrue(store.hasFlag(b, EntityStore.ALIVE));
+    }
+
+    @Test
+    public void testBuffering() {
+        EntityStore store = new EntityStore();
+        int a = store.add();
+        int b = store.add();
+        store.setPosition(a, 1, 1);
+        store.setPosition(b, 2, 2);
+
+        store.beginBuffering();
+        store.setPosition(a, 5, 6);
+        // the old position stays visible until the commit
+        assertEquals(1f, store.getX(a), 0);
+        store.commit();
+        assertEquals(5f, store.getX(a), 0);
+        assertEquals(6f, store.getY(a), 0);
+        assertEquals(2f, store.getX(b), 0);
+
+        store.setPosition(b, 3, 3);
+        assertEquals(3f, store.getX(b), 0);
+    }
+}
@@ -0,0 +1,137 @@
+package character;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import collision.CharacterDirection;
+import collision.Collidable;
+import collision.EntityGrid;
+import collision.Hitbox;
+import collision.ParallelCollision;
+import collision.SolidityGrid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class TestTickScheduler {
+    private static final CharacterDirection[] DIRECTIONS = {
+        CharacterDirection.UP,
+        CharacterDirection.DOWN,
+        CharacterDirection.LEFT,
+        CharacterDirection.RIGHT
+    };
+    private static final int SIZE = 32;
+
+    /**
+     * Flees from the nearest other walker, which it finds in the grid and whose position it reads
+     * from the store. Turns clockwise whenever it is blocked.
+     */
+    private static class Walker extends DungeonCharacter {
+        private final SolidityGrid terrain;
+        private final EntityGrid neighbours;
+        private final int[] found = new int[16];
+        private int direction;
+        private int fled;
+
+        Walker(SolidityGrid terrain, EntityGrid neighbours, EntityStore store, int direction) {
+            super(1, 0.3f, new Hitbox(8, 8), store);
+            this.terrain = terrain;
+            this.neighbours = neighbours;
+            this.direction = direction;
+            setSteering(new Steering(neighbours));
+        }
+
+        @Override
+        protected CharacterDirection getDirection() {
+            DungeonCharacter nearest = null;
+            float nearestDistance = Float.POSITIVE_INFINITY;
+            int count = neighbours.queryRadius(getX(), getY(), 1.5f, found);
+            for (int i = 0; i < count; i++) {
+                DungeonCharacter other = (DungeonCharacter) neighbours.get(found[i]);
+                if (other == this) continue;
+                float dx = other.getX() - getX();
+                float dy = other.getY() - getY();
+                float distance = dx * dx + dy * dy;
+                if (distance < nearestDistance) {
+                    nearest = other;
+                    nearestDistance = distance;
+                }
+            }
+            if (nearest == null) return DIRECTIONS[direction];
+            fled++;
+            float dx = getX() - nearest.getX();
+            float dy = getY() - nearest.getY();
+            if (Math.abs(dx) > Math.abs(dy))
+                return dx > 0 ? CharacterDirection.RIGHT : CharacterDirection.LEFT;
+            return dy > 0 ? CharacterDirection.UP : CharacterDirection.DOWN;
+        }
+
+        @Override
+        protected void setAnimation(CharacterDirection moved) {
+            if (moved == CharacterDirection.NONE) direction = (direction + 1) % DIRECTIONS.length;
+        }
+
+        @Override
+        protected SolidityGrid getTerrain() {
+            return terrain;
+        }
+
+        @Override
+        public void colide(Collidable other, CharacterDirection from) {}
+    }
+
+    private static List<Walker> spawn(
+            SolidityGrid terrain, EntityGrid neighbours, EntityStore store, int count) {
+        List<Walker> walkers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Walker walker = new Walker(terrain, neighbours, store, i % DIRECTIONS.length);
+            walker.setPosition(1 + i % 30, 1 + (i / 30) % 30);
+            walkers.add(walker);
+        }
+        return walkers;
+    }
+
+    /**
+     * The parallel phases move every character like a serial update, although the characters read
+     * the positions of others
+     */
+    @Test
+    public void testParallelMatchesSerial() {
+        SolidityGrid terrain = new SolidityGrid(SIZE, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            terrain.setSolid(i, 0);
+            terrain.setSolid(i, SIZE - 1);
+            terrain.setSolid(0, i);
+            terrain.setSolid(SIZE - 1, i);
+        }
+        EntityStore serialStore = new EntityStore();
+        EntityStore parallelStore = new EntityStore();
+        EntityGrid serialGrid = new EntityGrid();
+        EntityGrid parallelGrid = new EntityGrid();
+        List<Walker> serial = spawn(terrain, serialGrid, serialStore, 1000);
+        List<Walker> parallel = spawn(terrain, parallelGrid, parallelStore, 1000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TickScheduler serialScheduler =
+                new TickScheduler(new ParallelCollision(pool, Integer.MAX_VALUE), serialStore);
+        TickScheduler parallelScheduler =
+                new TickScheduler(new ParallelCollision(pool, 1), parallelStore);
+
+        for (int tick = 0; tick < 100; tick++) {
+            serialGrid.build(serial, SIZE, SIZE);
+            serialScheduler.update(serial, serialGrid);
+            parallelGrid.build(parallel, SIZE, SIZE);
+            parallelScheduler.update(parallel, parallelGrid);
+        }
+        int fled = 0;
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals(serial.get(i).getX(), parallel.get(i).getX(), 0);
+            assertEquals(serial.get(i).getY(), parallel.get(i).getY(), 0);
+            assertEquals(serial.get(i).fled, parallel.get(i).fled);
+            fled += serial.get(i).fled;
+        }
+        // the walkers really looked at each other
+        assertTrue(fled > 0);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,194 @@
+package character.monster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import character.Steering;
+import collision.CharacterDirection;
+import collision.EntityGrid;
+import collision.Hitbox;
+import collision.SolidityGrid;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import level.elements.tile.DoorTile;
+import level.elements.tile.Tile;
+import level.tools.Coordinate;
+import level.tools.DesignLabel;
+import level.tools.LevelElement;
+import level.tools.LevelSize;
+import levelgraph.DoorDirection;
+import levelgraph.GraphLevel;
+import levelgraph.LevelNode;
+import metrics.MetricsRegistry;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import room.Room;
+
+public class TestMonster {
+    private static final int WIDTH = 24;
+    private static final int HEIGHT = 12;
+
+    /** A monster without textures, that can be told to stay at its goal */
+    private static class Dummy extends Monster {
+        private boolean keepGoal;
+
+        Dummy() {
+            super(2, 0.1f, new Hitbox(5, 5));
+        }
+
+        @Override
+        protected void setAnimation(CharacterDirection direction) {}
+
+        @Override
+        protected void calculateGoal(boolean force) {
+            // stay at the reached goal instead of planning a new path
+            if (force && keepGoal) return;
+            super.calculateGoal(force);
+        }
+
+        // a new goal that is far away
+        void newFarGoal() {
+            do super.calculateGoal(true);
+            while (getDistanceToGoal() < WIDTH / 2f);
+        }
+
+        float distanceToGoal() {
+            return getDistanceToGoal();
+        }
+    }
+
+    private com.sun.management.ThreadMXBean threads;
+    private Room room;
+
+    @Before
+    public void setUp() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // an open room with a pillar in the middle, surrounded by walls
+        LevelElement[][] layout = new LevelElement[HEIGHT][WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                boolean wall = x == 0 || y == 0 || x == WIDTH - 1 || y == HEIGHT - 1;
+                boolean pillar = x == WIDTH / 2 && y > 2 && y < HEIGHT - 3;
+                layout[y][x] = wall || pillar ? LevelElement.WALL : LevelElement.FLOOR;
+            }
+        }
+        room = new Room(layout, DesignLabel.DEFAULT, null);
+        MetricsRegistry.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.setEnabled(false);
+    }
+
+    private Dummy spawn(float x, float y) {
+        Dummy monster = new Dummy();
+        monster.setLevel(room);
+        monster.setPosition(x, y);
+        return monster;
+    }
+
+    /** Following a cached path with steering and metrics creates no objects */
+    @Test
+    public void testFollowPathDoesNotAllocate() {
+        Dummy monster = spawn(1, 1);
+        EntityGrid neighbours = new EntityGrid();
+        neighbours.build(List.of(monster), WIDTH, HEIGHT);
+        monster.setSteering(new Steering(neighbours));
+        // warm up, walks to some random goals
+        for (int i = 0; i < 3000; i++) monster.update();
+
+        monster.newFarGoal();
+        monster.keepGoal = true;
+        // plans the path and takes the first steps
+        for (int i = 0; i < 10; i++) monster.update();
+        float x = monster.getX();
+        float y = monster.getY();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 30; i++) monster.update();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(0, allocated);
+        // the path may lead around the pillar, so only the walked distance is checked
+        assertTrue(Math.abs(monster.getX() - x) + Math.abs(monster.getY() - y) > 2);
+        monster.release();
+    }
+
+    /** Chasing with the shared flow field creates no objects while the target stays on its tile */
+    @Test
+    public void testChaseDoesNotAllocate() {
+        Dummy target = spawn(WIDTH - 3, HEIGHT - 3);
+        Dummy monster = spawn(1, 1);
+        EntityGrid neighbours = new EntityGrid();
+        neighbours.build(List.of(monster, target), WIDTH, HEIGHT);
+        monster.setSteering(new Steering(neighbours));
+        monster.setChaseTarget(target, WIDTH);
+        for (int i = 0; i < 10; i++) monster.update();
+        float distance = monster.distanceToGoal();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 30; i++) monster.update();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(0, allocated);
+        assertTrue(monster.distanceToGoal() < distance - 1);
+        monster.release();
+        target.release();
+    }
+
+    /** A travel goal in the next room is reached through the door between the rooms */
+    @Test
+    public void testTravelGoalInOtherRoom() {
+        LevelNode<Room> a = new LevelNode<>();
+        LevelNode<Room> b = new LevelNode<>();
+        a.connect(b, DoorDirection.RIGHT, DoorTile.DoorColor.NONE);
+        new GraphLevel(a, LevelSize.SMALL, DesignLabel.DEFAULT);
+        Room roomA = a.getRoom();
+        Room roomB = b.getRoom();
+        DoorTile door = doorTo(roomA, roomB);
+        Coordinate start = farthestFrom(roomA, door.getDoorstep());
+        Tile goal = roomB.getTileAt(farthestFrom(roomB, door.getOtherDoor().getDoorstep()));
+        Dummy monster = new Dummy();
+        monster.setLevel(roomA);
+        monster.setPosition(start.x, start.y);
+
+        assertTrue(monster.setTravelGoal(roomB, goal));
+        // steering does not slow down for a goal in another room
+        assertEquals(Float.POSITIVE_INFINITY, monster.distanceToGoal(), 0);
+        Coordinate target = goal.getCoordinate();
+        for (int i = 0; i < 20000 && !isOn(monster, roomB, target); i++) monster.update();
+
+        assertSame(roomB, monster.getLevel());
+        assertTrue(isOn(monster, roomB, target));
+        monster.release();
+    }
+
+    private static boolean isOn(Monster monster, Room room, Coordinate tile) {
+        return monster.getLevel() == room
+                && (int) monster.getX() == tile.x
+                && (int) monster.getY() == tile.y;
+    }
+
+    private static DoorTile doorTo(Room room, Room other) {
+        for (DoorTile door : room.getDoors()) {
+            if (door.getOtherDoor() != null && door.getOtherDoor().getLevel() == other)
+                return door;
+        }
+        throw new AssertionError("no door to the other room");
+    }
+
+    private static Coordinate farthestFrom(Room room, Tile tile) {
+        SolidityGrid grid = room.getCollisionMap().getSolidityGrid();
+        Coordinate from = tile.getCoordinate();
+        int[] distances = grid.distancesFrom(from.x, from.y);
+        int farthest = from.y * grid.getWidth() + from.x;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] > distances[farthest]) farthest = i;
+        }
+        return new Coordinate(farthest % grid.getWidth(), farthest / grid.getWidth());
+    }
+}
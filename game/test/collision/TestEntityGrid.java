@@ -0,0 +1,69 @@
+package collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import tools.Point;
+
+public class TestEntityGrid {
+
+    /** Compares the radius query with checking every entity */
+    @Test
+    public void testQueryRadius() {
+        Random random = new Random(3);
+        List<RectCollidable> bodies = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            bodies.add(
+                    new RectCollidable(
+                            new Point(random.nextFloat() * 20, random.nextFloat() * 10), 8, 8));
+        }
+        EntityGrid grid = new EntityGrid();
+        grid.build(bodies, 20, 10);
+        int[] out = new int[300];
+
+        for (int query = 0; query < 50; query++) {
+            float x = random.nextFloat() * 20;
+            float y = random.nextFloat() * 10;
+            float radius = random.nextFloat() * 3;
+            int found = grid.queryRadius(x, y, radius, out);
+
+            int expected = 0;
+            for (RectCollidable body : bodies) {
+                float dx = body.getPosition().x + 0.25f - x;
+                float dy = body.getPosition().y + 0.25f - y;
+                if (dx * dx + dy * dy <= radius * radius) expected++;
+            }
+            assertEquals(expected, found);
+            int[] sorted = Arrays.copyOf(out, found);
+            Arrays.sort(sorted);
+            for (int i = 1; i < found; i++) assertTrue(sorted[i] != sorted[i - 1]);
+        }
+    }
+
+    /** The cell order visits every entity once and cell starts lie between two cells */
+    @Test
+    public void testCellOrder() {
+        List<RectCollidable> bodies = new ArrayList<>();
+        // centers in the cells (3|1), (0|0), (3|1) and (1|0)
+        bodies.add(new RectCollidable(new Point(3.1f, 1.1f), 8, 8));
+        bodies.add(new RectCollidable(new Point(0.1f, 0.1f), 8, 8));
+        bodies.add(new RectCollidable(new Point(3.2f, 1.2f), 8, 8));
+        bodies.add(new RectCollidable(new Point(1.1f, 0.1f), 8, 8));
+        EntityGrid grid = new EntityGrid();
+        grid.build(bodies, 4, 2);
+
+        assertEquals(1, grid.getSorted(0));
+        assertEquals(3, grid.getSorted(1));
+        assertEquals(0, grid.getSorted(2));
+        assertEquals(2, grid.getSorted(3));
+        assertEquals(0, grid.nextCellStart(0));
+        assertEquals(2, grid.nextCellStart(2));
+        assertEquals(4, grid.nextCellStart(3));
+        assertEquals(4, grid.nextCellStart(4));
+    }
+}
@@ -0,0 +1,66 @@
+package collision;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import tools.Point;
+
+public class TestHitbox {
+
+    /** Checks the direction of a collision in every quarter around the hitbox */
+    @Test
+    public void testCollideDirection() {
+        Hitbox hitbox = new RectCollidable(new Point(0, 0), 16, 16).getHitbox();
+
+        assertEquals(
+                CharacterDirection.RIGHT,
+                hitbox.collide(new RectCollidable(new Point(0.5f, 0.1f), 16, 16).getHitbox()));
+        assertEquals(
+                CharacterDirection.LEFT,
+                hitbox.collide(new RectCollidable(new Point(-0.5f, 0.1f), 16, 16).getHitbox()));
+        assertEquals(
+                CharacterDirection.DOWN,
+                hitbox.collide(new RectCollidable(new Point(0.1f, 0.5f), 16, 16).getHitbox()));
+        assertEquals(
+                CharacterDirection.UP,
+                hitbox.collide(new RectCollidable(new Point(0.1f, -0.5f), 16, 16).getHitbox()));
+        assertEquals(
+                CharacterDirection.NONE,
+                hitbox.collide(new RectCollidable(new Point(1, 0), 16, 16).getHitbox()));
+    }
+
+    /** The direction has to match the angle based solution on and between the diagonals */
+    @Test
+    public void testResolveDirectionMatchesAngle() {
+        double piQuarter = Math.PI / 4;
+        for (int i = -8; i <= 8; i++) {
+            for (int j = -8; j <= 8; j++) {
+                double rads = Math.atan2(j, i);
+                CharacterDirection expected;
+                if (rads < 3 * -piQuarter) expected = CharacterDirection.LEFT;
+                else if (rads < -piQuarter) expected = CharacterDirection.UP;
+                else if (rads < piQuarter) expected = CharacterDirection.RIGHT;
+                else if (rads < 3 * piQuarter) expected = CharacterDirection.DOWN;
+                else expected = CharacterDirection.LEFT;
+                assertEquals(expected, Hitbox.resolveDirection(i, j));
+            }
+        }
+    }
+
+    /** Checks the batch collision against packed boxes */
+    @Test
+    public void testCollideAll() {
+        Hitbox hitbox = new RectCollidable(new Point(2, 2), 16, 16).getHitbox();
+        float[] boxes = new float[3 * Hitbox.BOX_STRIDE];
+        new RectCollidable(new Point(2.5f, 2.5f), 16, 16).getHitbox().writeBox(boxes, 0);
+        new RectCollidable(new Point(4, 4), 16, 16).getHitbox().writeBox(boxes, 1);
+        new RectCollidable(new Point(1.5f, 2), 16, 16).getHitbox().writeBox(boxes, 2);
+
+        int[] hits = new int[3];
+        int count = hitbox.collideAll(boxes, 3, hits);
+
+        assertEquals(2, count);
+        assertArrayEquals(new int[] {0, 2}, new int[] {hits[0], hits[1]});
+    }
+}
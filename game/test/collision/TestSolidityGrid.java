@@ -0,0 +1,88 @@
+package collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestSolidityGrid {
+
+    /** Checks boxes inside, touching and overlapping solid tiles and the level border */
+    @Test
+    public void testIsBlocked() {
+        SolidityGrid grid = new SolidityGrid(5, 5);
+        grid.setSolid(2, 2);
+
+        assertTrue(grid.isSolid(2, 2));
+        assertTrue(grid.isSolid(-1, 0));
+        assertFalse(grid.isSolid(1, 2));
+
+        assertFalse(grid.isBlocked(0.5f, 0.5f, 1.5f, 1.5f));
+        // touching the solid tile at the edge
+        assertFalse(grid.isBlocked(1f, 1f, 2f, 2f));
+        assertTrue(grid.isBlocked(1.5f, 1.5f, 2.1f, 2.1f));
+        // leaving the level
+        assertTrue(grid.isBlocked(-0.1f, 1f, 0.5f, 1.5f));
+        assertTrue(grid.isBlocked(4.5f, 1f, 5.1f, 1.5f));
+    }
+
+    /** Checks rows wider than one word */
+    @Test
+    public void testIsBlockedWideRows() {
+        SolidityGrid grid = new SolidityGrid(130, 2);
+        grid.setSolid(64, 1);
+        grid.setSolid(129, 0);
+
+        assertFalse(grid.isBlocked(0f, 0f, 128f, 1f));
+        assertTrue(grid.isBlocked(60f, 0.5f, 70f, 1.5f));
+        assertTrue(grid.isBlocked(128.5f, 0f, 129.5f, 0.5f));
+        assertFalse(grid.isBlocked(62f, 1f, 64f, 2f));
+    }
+
+    /** Checks that the merged rectangles cover every solid tile exactly once */
+    @Test
+    public void testMergeRectangles() {
+        SolidityGrid grid = new SolidityGrid(4, 3);
+        for (int x = 0; x < 4; x++) {
+            grid.setSolid(x, 0);
+            grid.setSolid(x, 1);
+        }
+        grid.setSolid(3, 2);
+
+        List<SolidityGrid.Rect> rects = grid.mergeRectangles();
+
+        assertEquals(2, rects.size());
+        assertEquals(new SolidityGrid.Rect(0, 0, 4, 2), rects.get(0));
+        assertEquals(new SolidityGrid.Rect(3, 2, 1, 1), rects.get(1));
+    }
+
+    /** Checks stopping at a wall, sliding along it and long moves through thin walls */
+    @Test
+    public void testMoveAndSlide() {
+        SolidityGrid grid = new SolidityGrid(6, 3);
+        for (int y = 0; y < 3; y++) grid.setSolid(3, y);
+        Hitbox hitbox = new Hitbox(8, 8);
+        SweepResult result = new SweepResult();
+
+        // stops at the wall and keeps moving on the y axis
+        grid.moveAndSlide(hitbox, 2f, 1f, 0.8f, 0.5f, result);
+        assertEquals(2.5f, result.getX(), 0f);
+        assertEquals(1.5f, result.getY(), 0f);
+        assertEquals(-1, result.getNormalX());
+        assertEquals(0, result.getNormalY());
+        assertTrue(result.isHit());
+
+        // a long knockback does not tunnel through the wall
+        grid.moveAndSlide(hitbox, 4.5f, 1f, -10f, 0f, result);
+        assertEquals(4f, result.getX(), 0f);
+        assertEquals(1, result.getNormalX());
+
+        // free movement
+        grid.moveAndSlide(hitbox, 0.5f, 0.5f, 0.5f, 0.5f, result);
+        assertEquals(1f, result.getX(), 0f);
+        assertEquals(1f, result.getY(), 0f);
+        assertFalse(result.isHit());
+    }
+}
@@ -0,0 +1,88 @@
+package collision;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import tools.Point;
+
+public class TestSweepAndPrune {
+
+    private static RectCollidable body(float x, float y, int layer, int mask) {
+        RectCollidable body = new RectCollidable(new Point(x, y), 16, 16);
+        body.getHitbox().setLayer(layer);
+        body.getHitbox().setMask(mask);
+        return body;
+    }
+
+    /** Only overlapping pairs with matching layers are detected, sorted by their ids */
+    @Test
+    public void testDetect() {
+        SweepAndPrune broadphase = new SweepAndPrune();
+        broadphase.add(body(5, 0, CollisionLayer.ENEMY, CollisionLayer.SKILL));
+        broadphase.add(body(0, 0, CollisionLayer.HERO, CollisionLayer.ENEMY));
+        broadphase.add(body(0.5f, 0.2f, CollisionLayer.ENEMY, CollisionLayer.SKILL));
+        broadphase.add(body(5.5f, 0, CollisionLayer.ENEMY, CollisionLayer.SKILL));
+        broadphase.add(body(4.8f, 0.1f, CollisionLayer.SKILL, CollisionLayer.ENEMY));
+
+        ContactBuffer contacts = new ContactBuffer(1);
+        broadphase.detect(contacts);
+        contacts.sortAndDeduplicate();
+
+        // the enemies 0 and 3 overlap, but do not want to collide with each other
+        assertEquals(3, contacts.size());
+        assertEquals(0, contacts.getFirst(0));
+        assertEquals(4, contacts.getSecond(0));
+        assertEquals(CharacterDirection.LEFT, contacts.getDirection(0));
+        assertEquals(1, contacts.getFirst(1));
+        assertEquals(2, contacts.getSecond(1));
+        assertEquals(CharacterDirection.RIGHT, contacts.getDirection(1));
+        assertEquals(3, contacts.getFirst(2));
+        assertEquals(4, contacts.getSecond(2));
+    }
+
+    /** The same pair is only kept once, the direction is stored from the smaller id */
+    @Test
+    public void testDeduplicate() {
+        ContactBuffer contacts = new ContactBuffer();
+        contacts.add(7, 3, CharacterDirection.UP);
+        contacts.add(3, 7, CharacterDirection.DOWN);
+        contacts.add(1, 2, CharacterDirection.LEFT);
+
+        contacts.sortAndDeduplicate();
+
+        assertEquals(2, contacts.size());
+        assertEquals(1, contacts.getFirst(0));
+        assertEquals(3, contacts.getFirst(1));
+        assertEquals(7, contacts.getSecond(1));
+        assertEquals(CharacterDirection.DOWN, contacts.getDirection(1));
+    }
+
+    /** The parallel detection finds exactly the same contacts as the single threaded one */
+    @Test
+    public void testParallelDetect() {
+        Random random = new Random(42);
+        SweepAndPrune broadphase = new SweepAndPrune();
+        for (int i = 0; i < 2000; i++) {
+            int layer = i % 2 == 0 ? CollisionLayer.HERO : CollisionLayer.ENEMY;
+            float x = random.nextFloat() * 40;
+            float y = random.nextFloat() * 40;
+            broadphase.add(body(x, y, layer, CollisionLayer.ALL));
+        }
+        ContactBuffer serial = new ContactBuffer();
+        broadphase.detect(serial);
+        serial.sortAndDeduplicate();
+
+        ContactBuffer parallel = new ContactBuffer();
+        broadphase.detect(parallel, new ParallelCollision(new ForkJoinPool(4), 1));
+        parallel.sortAndDeduplicate();
+
+        assertEquals(serial.size(), parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals(serial.getFirst(i), parallel.getFirst(i));
+            assertEquals(serial.getSecond(i), parallel.getSecond(i));
+            assertEquals(serial.getDirection(i), parallel.getDirection(i));
+        }
+    }
+}
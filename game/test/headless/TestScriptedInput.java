@@ -0,0 +1,32 @@
+package headless;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.Input;
+import org.junit.Test;
+
+public class TestScriptedInput {
+
+    @Test
+    public void testKeysFollowTheScript() {
+        ScriptedInput script = ScriptedInput.parse("W:0-10, D:5-6");
+        Input input = script.asInput();
+
+        script.setTick(0);
+        assertTrue(input.isKeyPressed(Input.Keys.W));
+        assertFalse(input.isKeyPressed(Input.Keys.D));
+        script.setTick(5);
+        assertTrue(input.isKeyPressed(Input.Keys.D));
+        assertTrue(input.isKeyJustPressed(Input.Keys.D));
+        assertFalse(input.isKeyJustPressed(Input.Keys.W));
+        script.setTick(10);
+        assertFalse(input.isKeyPressed(Input.Keys.W));
+        assertFalse(input.isKeyPressed(Input.Keys.ANY_KEY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEntry() {
+        ScriptedInput.parse("W:10");
+    }
+}
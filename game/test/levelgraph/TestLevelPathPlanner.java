@@ -0,0 +1,105 @@
+package levelgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import collision.SolidityGrid;
+import java.util.List;
+import level.elements.tile.DoorTile;
+import level.elements.tile.Tile;
+import level.tools.Coordinate;
+import level.tools.DesignLabel;
+import level.tools.LevelSize;
+import levelgraph.LevelPathPlanner.LevelPath;
+import org.junit.Test;
+import room.Room;
+
+public class TestLevelPathPlanner {
+
+    /** Plans from the first to the last room of three rooms in a row */
+    @Test
+    public void testPlanThroughRooms() {
+        LevelNode<Room> a = new LevelNode<>();
+        LevelNode<Room> b = new LevelNode<>();
+        LevelNode<Room> c = new LevelNode<>();
+        a.connect(b, DoorDirection.RIGHT, DoorTile.DoorColor.NONE);
+        b.connect(c, DoorDirection.RIGHT, DoorTile.DoorColor.NONE);
+        new GraphLevel(a, LevelSize.SMALL, DesignLabel.DEFAULT);
+        Room roomA = a.getRoom();
+        Room roomB = b.getRoom();
+        Room roomC = c.getRoom();
+        DoorTile aToB = doorTo(roomA, roomB);
+        DoorTile bToC = doorTo(roomB, roomC);
+
+        // the tiles farthest away from the doors
+        Coordinate start = farthestFrom(roomA, aToB.getDoorstep());
+        Coordinate goal = farthestFrom(roomC, bToC.getOtherDoor().getDoorstep());
+        LevelPath path = new LevelPathPlanner().plan(roomA, start, roomC, goal);
+
+        assertNotNull(path);
+        assertEquals(List.of(aToB, bToC), path.doors());
+        int expected =
+                distance(roomA, start, aToB.getDoorstep().getCoordinate())
+                        + 2
+                        + distance(
+                                roomB,
+                                aToB.getOtherDoor().getDoorstep().getCoordinate(),
+                                bToC.getDoorstep().getCoordinate())
+                        + 2
+                        + distance(
+                                roomC, bToC.getOtherDoor().getDoorstep().getCoordinate(), goal);
+        assertEquals(expected, path.cost());
+
+        Tile goalTile = roomC.getTileAt(goal);
+        assertSame(aToB, path.getNextTarget(roomA, goalTile));
+        assertSame(bToC, path.getNextTarget(roomB, goalTile));
+        assertSame(goalTile, path.getNextTarget(roomC, goalTile));
+    }
+
+    /** A goal in the same room is reached without a door */
+    @Test
+    public void testPlanInsideRoom() {
+        LevelNode<Room> a = new LevelNode<>();
+        LevelNode<Room> b = new LevelNode<>();
+        a.connect(b, DoorDirection.UP, DoorTile.DoorColor.NONE);
+        new GraphLevel(a, LevelSize.SMALL, DesignLabel.DEFAULT);
+        Room room = a.getRoom();
+        Tile doorstep = doorTo(room, b.getRoom()).getDoorstep();
+        Coordinate goal = farthestFrom(room, doorstep);
+
+        LevelPath path =
+                new LevelPathPlanner().plan(room, doorstep.getCoordinate(), room, goal);
+
+        assertNotNull(path);
+        assertTrue(path.doors().isEmpty());
+        assertEquals(distance(room, doorstep.getCoordinate(), goal), path.cost());
+    }
+
+    private static DoorTile doorTo(Room room, Room other) {
+        for (DoorTile door : room.getDoors()) {
+            if (door.getOtherDoor() != null && door.getOtherDoor().getLevel() == other)
+                return door;
+        }
+        throw new AssertionError("no door to the other room");
+    }
+
+    private static Coordinate farthestFrom(Room room, Tile tile) {
+        SolidityGrid grid = room.getCollisionMap().getSolidityGrid();
+        Coordinate from = tile.getCoordinate();
+        int[] distances = grid.distancesFrom(from.x, from.y);
+        int farthest = from.y * grid.getWidth() + from.x;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] > distances[farthest]) farthest = i;
+        }
+        return new Coordinate(farthest % grid.getWidth(), farthest / grid.getWidth());
+    }
+
+    private static int distance(Room room, Coordinate from, Coordinate to) {
+        SolidityGrid grid = room.getCollisionMap().getSolidityGrid();
+        int distance = grid.distancesFrom(from.x, from.y)[to.y * grid.getWidth() + to.x];
+        assertTrue(distance >= 0);
+        return distance;
+    }
+}
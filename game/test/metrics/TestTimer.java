@@ -0,0 +1,38 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestTimer {
+
+    /** Small values are exact, bigger values are within the precision of a bucket */
+    @Test
+    public void testPercentile() {
+        Timer timer = new Timer();
+        for (int i = 1; i <= 100; i++) timer.record(i * 1000L);
+
+        assertEquals(100, timer.getCount());
+        assertEquals(50500, timer.getMean(), 0.001);
+        long p99 = timer.getPercentile(99);
+        assertTrue(p99 <= 99000 && p99 > 99000 * 0.875);
+        long p50 = timer.getPercentile(50);
+        assertTrue(p50 <= 50000 && p50 > 50000 * 0.875);
+
+        timer.reset();
+        timer.record(5);
+        assertEquals(5, timer.getPercentile(99));
+    }
+
+    /** Every bucket starts where the one before ends */
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 1 << 16; value++) {
+            int bucket = Timer.bucketOf(value);
+            assertTrue(Timer.lowerBound(bucket) <= value);
+            assertTrue(Timer.lowerBound(bucket + 1) > value);
+        }
+        assertTrue(Timer.bucketOf(Long.MAX_VALUE) >= 0);
+    }
+}
@@ -0,0 +1,73 @@
+package room;
+
+import collision.SolidityGrid;
+
+/**
+ * Breadth first search, every step costs the same so the first path found is a shortest one. The
+ * reference the {@link JumpPointPathFinder} is compared with.
+ */
+class BreadthFirstPathFinder implements PathFinder {
+    private int[] parent = new int[0];
+    private int[] queue = new int[0];
+    // a tile is visited in this search if its stamp equals the current one, saves the clearing
+    private int[] visited = new int[0];
+    private int stamp;
+    private int expanded;
+
+    @Override
+    public GridPath findPath(SolidityGrid grid, int fromX, int fromY, int toX, int toY) {
+        expanded = 0;
+        if (grid.isSolid(fromX, fromY) || grid.isSolid(toX, toY)) return null;
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int size = width * height;
+        if (visited.length < size) {
+            parent = new int[size];
+            queue = new int[size];
+            visited = new int[size];
+            stamp = 0;
+        }
+        stamp++;
+        int start = fromY * width + fromX;
+        int goal = toY * width + toX;
+        visited[start] = stamp;
+        parent[start] = -1;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int index = queue[head++];
+            if (index == goal) return buildPath(width, goal);
+            expanded++;
+            int x = index % width;
+            int y = index / width;
+            if (y + 1 < height) tail = visit(grid, x, y + 1, index, width, tail);
+            if (y > 0) tail = visit(grid, x, y - 1, index, width, tail);
+            if (x > 0) tail = visit(grid, x - 1, y, index, width, tail);
+            if (x + 1 < width) tail = visit(grid, x + 1, y, index, width, tail);
+        }
+        return null;
+    }
+
+    @Override
+    public int getExpandedNodes() {
+        return expanded;
+    }
+
+    private int visit(SolidityGrid grid, int x, int y, int from, int width, int tail) {
+        int index = y * width + x;
+        if (visited[index] == stamp || grid.isSolid(x, y)) return tail;
+        visited[index] = stamp;
+        parent[index] = from;
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    private GridPath buildPath(int width, int goal) {
+        int count = 0;
+        for (int index = goal; index != -1; index = parent[index]) count++;
+        int[] tiles = new int[count];
+        for (int index = goal; index != -1; index = parent[index]) tiles[--count] = index;
+        return new GridPath(width, tiles);
+    }
+}
@@ -0,0 +1,62 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import level.tools.DesignLabel;
+import org.junit.Test;
+
+public class TestConnectedComponents {
+
+    /** Two areas split by a wall, a door belongs to the area but is no floor tile */
+    @Test
+    public void testDisjointRegions() {
+        Room room =
+                new Room(
+                        TestRoom.layout("WWWWWWW", "W..W..D", "W..W..W", "WWWWWWW"),
+                        DesignLabel.DEFAULT,
+                        null);
+        ConnectedComponents components = room.getComponents();
+
+        assertEquals(2, components.getComponentCount());
+        int left = components.getComponent(1, 1);
+        int right = components.getComponent(4, 1);
+        assertNotEquals(left, right);
+        assertEquals(left, components.getComponent(2, 2));
+        assertEquals(right, components.getComponent(6, 2));
+        assertEquals(ConnectedComponents.NONE, components.getComponent(3, 1));
+        assertEquals(ConnectedComponents.NONE, components.getComponent(-1, 1));
+        assertEquals(4, components.getFloorTileCount(left));
+        assertEquals(4, components.getFloorTileCount(right));
+
+        // every sampled tile is a floor tile of the component, and all of them are sampled
+        Random random = new Random(42);
+        for (int component : new int[] {left, right}) {
+            Set<Integer> sampled = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                int tile = components.getRandomFloorTile(component, random);
+                int x = tile % components.getWidth();
+                int y = tile / components.getWidth();
+                assertEquals(component, components.getComponent(x, y));
+                assertTrue(x != 6);
+                sampled.add(tile);
+            }
+            assertEquals(4, sampled.size());
+        }
+    }
+
+    /** A component of only a door has no floor tile to sample */
+    @Test
+    public void testNoFloorTiles() {
+        Room room = new Room(TestRoom.layout("WWW", "WDW", "WWW"), DesignLabel.DEFAULT, null);
+        ConnectedComponents components = room.getComponents();
+
+        assertEquals(1, components.getComponentCount());
+        assertEquals(0, components.getFloorTileCount(0));
+        assertEquals(-1, components.getRandomFloorTile(0, new Random(1)));
+    }
+}
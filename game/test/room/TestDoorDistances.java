@@ -0,0 +1,136 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+
+import collision.CharacterDirection;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import level.elements.tile.DoorTile;
+import level.tools.Coordinate;
+import level.tools.DesignLabel;
+import level.tools.LevelElement;
+import org.junit.Test;
+
+public class TestDoorDistances {
+    // W W W D W W W
+    // W . . . . . W
+    // D . W W W . W
+    // W . . . . . W
+    // W W W W W D W
+    private static final LevelElement[][] LAYOUT =
+            TestRoom.layout("WWWDWWW", "W.....W", "D.WWW.W", "W.....W", "WWWWWDW");
+
+    private static Room room() {
+        Room room = new Room(LAYOUT, DesignLabel.DEFAULT, null);
+        door(room, 3, 4, 3, 3);
+        door(room, 0, 2, 1, 2);
+        door(room, 5, 0, 5, 1);
+        return room;
+    }
+
+    private static void door(Room room, int x, int y, int stepX, int stepY) {
+        DoorTile door = (DoorTile) room.getTileAt(new Coordinate(x, y));
+        door.setDoorstep(room.getTileAt(new Coordinate(stepX, stepY)));
+        room.addDoor(door);
+    }
+
+    /** The tables match a breadth first search on the layout, computed now or in the background */
+    @Test
+    public void testDistances() {
+        Room room = room();
+        check(room, room.getDoorDistances());
+
+        Room precomputed = room();
+        precomputed.precomputeDoorDistances();
+        check(precomputed, precomputed.getDoorDistances());
+    }
+
+    private static void check(Room room, DoorDistances distances) {
+        DoorTile[] doors = distances.getDoors();
+        assertEquals(3, doors.length);
+        assertEquals(3, distances.getStartIndex());
+        Coordinate[] points = new Coordinate[4];
+        for (int i = 0; i < doors.length; i++) {
+            assertEquals(i, distances.indexOf(doors[i]));
+            points[i] = doors[i].getDoorstep().getCoordinate();
+        }
+        points[3] = room.getStartTile().getCoordinate();
+
+        for (int from = 0; from < points.length; from++) {
+            for (int to = 0; to < points.length; to++) {
+                int expected = bfs(points[from], points[to]);
+                assertEquals(expected, distances.getDistance(from, to));
+                assertEquals(expected, walk(distances, from, to, points[from], points[to]));
+            }
+        }
+    }
+
+    // follows the first steps, every step has to be one closer to the target
+    private static int walk(
+            DoorDistances distances, int from, int to, Coordinate start, Coordinate target) {
+        int x = start.x;
+        int y = start.y;
+        int steps = 0;
+        CharacterDirection step = distances.getFirstStep(from, to);
+        while (step != CharacterDirection.NONE) {
+            switch (step) {
+                case UP -> y++;
+                case DOWN -> y--;
+                case LEFT -> x--;
+                case RIGHT -> x++;
+            }
+            steps++;
+            Coordinate reached = new Coordinate(x, y);
+            assertEquals(distances.getDistance(from, to) - steps, bfs(reached, target));
+            step = firstStep(reached, target);
+        }
+        assertEquals(target.x, x);
+        assertEquals(target.y, y);
+        return steps;
+    }
+
+    // the direction the table would give from any tile, found with the reference search
+    private static CharacterDirection firstStep(Coordinate from, Coordinate to) {
+        int distance = bfs(from, to);
+        if (distance <= 0) return CharacterDirection.NONE;
+        if (bfs(new Coordinate(from.x, from.y + 1), to) == distance - 1)
+            return CharacterDirection.UP;
+        if (bfs(new Coordinate(from.x, from.y - 1), to) == distance - 1)
+            return CharacterDirection.DOWN;
+        if (bfs(new Coordinate(from.x - 1, from.y), to) == distance - 1)
+            return CharacterDirection.LEFT;
+        return CharacterDirection.RIGHT;
+    }
+
+    // breadth first search on the layout, without the solidity grid
+    private static int bfs(Coordinate from, Coordinate to) {
+        int height = LAYOUT.length;
+        int width = LAYOUT[0].length;
+        if (!walkable(from.x, from.y)) return DoorDistances.UNREACHABLE;
+        int[][] distance = new int[height][width];
+        for (int[] row : distance) Arrays.fill(row, DoorDistances.UNREACHABLE);
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        distance[from.y][from.x] = 0;
+        queue.add(new int[] {from.x, from.y});
+        int[][] neighbours = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+        while (!queue.isEmpty()) {
+            int[] tile = queue.poll();
+            for (int[] n : neighbours) {
+                int x = tile[0] + n[0];
+                int y = tile[1] + n[1];
+                if (!walkable(x, y) || distance[y][x] != DoorDistances.UNREACHABLE) continue;
+                distance[y][x] = distance[tile[1]][tile[0]] + 1;
+                queue.add(new int[] {x, y});
+            }
+        }
+        return distance[to.y][to.x];
+    }
+
+    private static boolean walkable(int x, int y) {
+        return y >= 0
+                && x >= 0
+                && y < LAYOUT.length
+                && x < LAYOUT[0].length
+                && LAYOUT[y][x].getValue();
+    }
+}
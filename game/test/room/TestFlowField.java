@@ -0,0 +1,63 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import collision.CharacterDirection;
+import collision.SolidityGrid;
+import org.junit.Test;
+
+public class TestFlowField {
+
+    /** Follows the field around a wall and checks that unreachable tiles have no direction */
+    @Test
+    public void testDirections() {
+        // . . . . .
+        // . # # # .
+        // . # T . .   T = target
+        // # # # # #
+        // . . . . #
+        SolidityGrid grid = new SolidityGrid(5, 5);
+        grid.setSolid(1, 3);
+        grid.setSolid(2, 3);
+        grid.setSolid(3, 3);
+        grid.setSolid(1, 2);
+        grid.setSolid(0, 1);
+        grid.setSolid(1, 1);
+        grid.setSolid(2, 1);
+        grid.setSolid(3, 1);
+        grid.setSolid(4, 1);
+        grid.setSolid(4, 0);
+        FlowField field = new FlowField();
+
+        assertTrue(field.update(grid, 2, 2));
+        assertFalse(field.update(grid, 2, 2));
+
+        assertEquals(CharacterDirection.NONE, field.getDirection(2, 2));
+        assertEquals(CharacterDirection.LEFT, field.getDirection(3, 2));
+        assertEquals(CharacterDirection.DOWN, field.getDirection(4, 3));
+        assertEquals(CharacterDirection.RIGHT, field.getDirection(0, 4));
+
+        // walk from the top left corner to the target
+        int x = 0;
+        int y = 4;
+        int steps = 0;
+        while (field.getDirection(x, y) != CharacterDirection.NONE) {
+            switch (field.getDirection(x, y)) {
+                case UP -> y++;
+                case DOWN -> y--;
+                case LEFT -> x--;
+                case RIGHT -> x++;
+            }
+            steps++;
+        }
+        assertEquals(2, x);
+        assertEquals(2, y);
+        assertEquals(8, steps);
+
+        // the bottom row is cut off by the wall
+        assertFalse(field.isReachable(0, 0));
+        assertEquals(CharacterDirection.NONE, field.getDirection(0, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import collision.SolidityGrid;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestJumpPointPathFinder {
+
+    /** Compares the paths with a breadth first search on random grids */
+    @Test
+    public void testSameLengthAsBreadthFirst() {
+        Random random = new Random(7);
+        JumpPointPathFinder jps = new JumpPointPathFinder();
+        BreadthFirstPathFinder bfs = new BreadthFirstPathFinder();
+        int searches = 0;
+        for (int run = 0; run < 50; run++) {
+            int width = 5 + random.nextInt(40);
+            int height = 5 + random.nextInt(40);
+            SolidityGrid grid = new SolidityGrid(width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (random.nextFloat() < 0.25f) grid.setSolid(x, y);
+                }
+            }
+            for (int query = 0; query < 20; query++) {
+                int fromX = random.nextInt(width);
+                int fromY = random.nextInt(height);
+                int toX = random.nextInt(width);
+                int toY = random.nextInt(height);
+                GridPath expected = bfs.findPath(grid, fromX, fromY, toX, toY);
+                GridPath actual = jps.findPath(grid, fromX, fromY, toX, toY);
+                if (expected == null) {
+                    assertNull(actual);
+                    continue;
+                }
+                assertEquals(expected.getCount(), actual.getCount());
+                assertValid(grid, actual, fromX, fromY, toX, toY);
+                searches++;
+            }
+        }
+        assertTrue(searches > 0);
+    }
+
+    /** A path in an open room is straight runs, only very few nodes are expanded */
+    @Test
+    public void testOpenRoom() {
+        SolidityGrid grid = new SolidityGrid(40, 40);
+        JumpPointPathFinder jps = new JumpPointPathFinder();
+
+        GridPath path = jps.findPath(grid, 0, 0, 39, 39);
+
+        assertEquals(79, path.getCount());
+        assertValid(grid, path, 0, 0, 39, 39);
+        assertTrue(jps.getExpandedNodes() < 79);
+    }
+
+    private static void assertValid(
+            SolidityGrid grid, GridPath path, int fromX, int fromY, int toX, int toY) {
+        assertEquals(fromX, path.getX(0));
+        assertEquals(fromY, path.getY(0));
+        assertEquals(toX, path.getX(path.getCount() - 1));
+        assertEquals(toY, path.getY(path.getCount() - 1));
+        for (int i = 0; i < path.getCount(); i++) {
+            assertFalse(grid.isSolid(path.getX(i), path.getY(i)));
+            if (i > 0) {
+                int step =
+                        Math.abs(path.getX(i) - path.getX(i - 1))
+                                + Math.abs(path.getY(i) - path.getY(i - 1));
+                assertEquals(1, step);
+            }
+        }
+    }
+}
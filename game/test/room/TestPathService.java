@@ -0,0 +1,121 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import collision.SolidityGrid;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestPathService {
+
+    private static class CountingFinder extends JumpPointPathFinder {
+        int searches;
+
+        @Override
+        public GridPath findPath(SolidityGrid grid, int fromX, int fromY, int toX, int toY) {
+            searches++;
+            return super.findPath(grid, fromX, fromY, toX, toY);
+        }
+    }
+
+    private static SolidityGrid grid() {
+        // a wall with a gap at the top
+        SolidityGrid grid = new SolidityGrid(8, 8);
+        for (int y = 0; y < 7; y++) grid.setSolid(4, y);
+        return grid.freeze();
+    }
+
+    /** Paths planned by a worker arrive on the thread that starts the frame */
+    @Test
+    public void testWorkerHandOff() throws InterruptedException {
+        PathService service = new PathService(1, 0, JumpPointPathFinder::new);
+        List<PathService.Request> found = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        PathService.Requester requester =
+                request -> {
+                    found.add(request);
+                    threads.add(Thread.currentThread());
+                };
+
+        PathService.Request request = service.request(requester, grid(), 0, 0, 7, 0);
+        assertNotNull(request);
+        // nothing is handed out before the next frame
+        assertTrue(found.isEmpty());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (found.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+            service.beginFrame();
+        }
+        assertEquals(1, found.size());
+        assertSame(request, found.get(0));
+        assertSame(Thread.currentThread(), threads.get(0));
+        GridPath path = request.getPath();
+        assertNotNull(path);
+        assertEquals(7, path.getX(path.getCount() - 1));
+        assertEquals(0, path.getY(path.getCount() - 1));
+    }
+
+    /** Without workers the calling thread plans until the budget of the frame is used up */
+    @Test
+    public void testBudget() {
+        CountingFinder finder = new CountingFinder();
+        PathService service = new PathService(0, 1, () -> finder);
+        List<PathService.Request> found = new ArrayList<>();
+
+        PathService.Request first = service.request(found::add, grid(), 0, 0, 7, 0);
+        assertNotNull(first);
+        assertEquals(1, finder.searches);
+        // planned directly, but handed out in the next frame like the paths of the workers
+        assertTrue(found.isEmpty());
+        assertNull(service.request(found::add, grid(), 0, 0, 7, 7));
+        assertEquals(1, finder.searches);
+
+        service.beginFrame();
+        assertEquals(List.of(first), found);
+        assertNotNull(first.getPath());
+        // the budget is reset with the new frame
+        assertNotNull(service.request(found::add, grid(), 0, 0, 7, 7));
+        assertEquals(2, finder.searches);
+    }
+
+    /** Outdated results are still delivered, with what they were planned on */
+    @Test
+    public void testStaleResult() {
+        PathService service = new PathService(0, Long.MAX_VALUE, JumpPointPathFinder::new);
+        List<PathService.Request> found = new ArrayList<>();
+        SolidityGrid oldGrid = grid();
+
+        PathService.Request old = service.request(found::add, oldGrid, 0, 0, 7, 0);
+        // the terrain changed and the requester asked again
+        SolidityGrid newGrid = grid();
+        PathService.Request current = service.request(found::add, newGrid, 0, 0, 7, 7);
+        service.beginFrame();
+
+        assertEquals(List.of(old, current), found);
+        assertSame(oldGrid, old.getGrid());
+        assertNotSame(newGrid, old.getGrid());
+        assertEquals(0, old.getToY());
+        assertEquals(7, current.getToY());
+        assertNotNull(current.getPath());
+    }
+
+    /** Grids that can still change are not shared with the workers */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpenGrid() {
+        PathService service = new PathService(0, Long.MAX_VALUE, JumpPointPathFinder::new);
+        service.request(request -> {}, new SolidityGrid(4, 4), 0, 0, 3, 3);
+    }
+
+    /** Frozen grids never change */
+    @Test(expected = IllegalStateException.class)
+    public void testFrozenGrid() {
+        grid().setSolid(0, 0);
+    }
+}
@@ -0,0 +1,84 @@
+package room;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import collision.CharacterDirection;
+import collision.CollisionMap;
+import level.tools.DesignLabel;
+import level.tools.LevelElement;
+import org.junit.Test;
+
+public class TestRoom {
+
+    static LevelElement[][] layout(String... rows) {
+        // the first string is the top row
+        LevelElement[][] layout = new LevelElement[rows.length][rows[0].length()];
+        for (int y = 0; y < rows.length; y++) {
+            String row = rows[rows.length - 1 - y];
+            for (int x = 0; x < row.length(); x++) {
+                layout[y][x] =
+                        switch (row.charAt(x)) {
+                            case 'W' -> LevelElement.WALL;
+                            case 'D' -> LevelElement.DOOR;
+                            case ' ' -> LevelElement.SKIP;
+                            default -> LevelElement.FLOOR;
+                        };
+            }
+        }
+        return layout;
+    }
+
+    private static Room room() {
+        return new Room(layout("WWWWW", "W...W", "W.W.W", "WWWWW"), DesignLabel.DEFAULT, null);
+    }
+
+    /** Entering a room again uses the cached collision map and components */
+    @Test
+    public void testCacheHit() {
+        Room room = room();
+        CollisionMap map = room.getCollisionMap();
+        ConnectedComponents components = room.getComponents();
+
+        assertSame(map, room.getCollisionMap());
+        assertSame(components, room.getComponents());
+        assertEquals(0, room.getTerrainVersion());
+        assertEquals(1, components.getComponentCount());
+    }
+
+    /** After a change of the terrain everything is built again from the layout */
+    @Test
+    public void testInvalidate() {
+        Room room = room();
+        CollisionMap map = room.getCollisionMap();
+        ConnectedComponents components = room.getComponents();
+
+        room.invalidateCollisionMap();
+
+        assertEquals(1, room.getTerrainVersion());
+        assertNotSame(map, room.getCollisionMap());
+        assertNotSame(map.getSolidityGrid(), room.getCollisionMap().getSolidityGrid());
+        assertNotSame(components, room.getComponents());
+        assertSame(room.getCollisionMap(), room.getCollisionMap());
+    }
+
+    /** A field handed out once never changes, a new target gets a new field */
+    @Test
+    public void testFlowFieldPerTarget() {
+        Room room = room();
+        FlowField left = room.getFlowField(1, 1);
+        assertSame(left, room.getFlowField(1, 1));
+
+        FlowField right = room.getFlowField(3, 1);
+        assertNotSame(left, right);
+        assertTrue(left.leadsTo(room.getCollisionMap().getSolidityGrid(), 1, 1));
+        assertEquals(CharacterDirection.DOWN, left.getDirection(1, 2));
+        assertEquals(CharacterDirection.DOWN, right.getDirection(3, 2));
+        assertEquals(CharacterDirection.NONE, right.getDirection(3, 1));
+
+        room.invalidateCollisionMap();
+        assertNotSame(right, room.getFlowField(3, 1));
+    }
+}
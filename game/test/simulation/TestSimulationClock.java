@@ -0,0 +1,41 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TestSimulationClock {
+
+    @Test
+    public void testTicksIndependentOfFrameRate() {
+        SimulationClock slow = new SimulationClock(30, 5);
+        SimulationClock fast = new SimulationClock(30, 5);
+        int slowTicks = 0;
+        int fastTicks = 0;
+        // one second at 20 and at 144 frames per second
+        for (int frame = 0; frame < 20; frame++) slowTicks += slow.advance(1f / 20);
+        for (int frame = 0; frame < 144; frame++) fastTicks += fast.advance(1f / 144);
+        assertEquals(30, slowTicks, 1);
+        assertEquals(30, fastTicks, 1);
+    }
+
+    @Test
+    public void testInterpolation() {
+        SimulationClock clock = new SimulationClock(10, 5);
+        assertEquals(0, clock.advance(0.05f));
+        assertEquals(0.5f, clock.getAlpha(), 1e-4f);
+        assertEquals(1, clock.advance(0.075f));
+        assertEquals(0.25f, clock.getAlpha(), 1e-4f);
+    }
+
+    @Test
+    public void testCatchUpIsCapped() {
+        SimulationClock clock = new SimulationClock(10, 3);
+        // a stall of one second only runs the cap, the rest is dropped
+        assertEquals(3, clock.advance(1.04f));
+        assertEquals(7, clock.getDroppedTicks());
+        assertEquals(0.4f, clock.getAlpha(), 1e-4f);
+        assertEquals(1, clock.advance(0.07f));
+        assertEquals(4, clock.getTicks());
+    }
+}